@@ -1,9 +1,12 @@
 package com.rightmeprove.airbnb.airBnbApp.advice;
 
+import com.rightmeprove.airbnb.airBnbApp.exception.BadRequestException;
+import com.rightmeprove.airbnb.airBnbApp.exception.ResourceConflictException;
 import com.rightmeprove.airbnb.airBnbApp.exception.ResourceNotFoundException;
 import io.jsonwebtoken.JwtException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.BindException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.security.access.AccessDeniedException;
@@ -22,6 +25,39 @@ public class GlobalExceptionHandler {
         return buildErrorResponseEntity(apiError);
     }
 
+    // Handles invalid request parameters (e.g., malformed search criteria)
+    @ExceptionHandler(BadRequestException.class)
+    public ResponseEntity<ApiResponse<?>> handleBadRequest(BadRequestException exception){
+        ApiError apiError = ApiError.builder()
+                .status(HttpStatus.BAD_REQUEST)
+                .message(exception.getMessage())
+                .build();
+        return buildErrorResponseEntity(apiError);
+    }
+
+    // Handles request parameters that cannot be bound (e.g., a malformed date in a query parameter)
+    @ExceptionHandler(BindException.class)
+    public ResponseEntity<ApiResponse<?>> handleBindException(BindException exception){
+        ApiError apiError = ApiError.builder()
+                .status(HttpStatus.BAD_REQUEST)
+                .message("Invalid request parameters")
+                .subErrors(exception.getFieldErrors().stream()
+                        .map(error -> error.getField() + ": invalid value '" + error.getRejectedValue() + "'")
+                        .toList())
+                .build();
+        return buildErrorResponseEntity(apiError);
+    }
+
+    // Handles conflicts with existing data (e.g., duplicate email on signup)
+    @ExceptionHandler(ResourceConflictException.class)
+    public ResponseEntity<ApiResponse<?>> handleResourceConflict(ResourceConflictException exception){
+        ApiError apiError = ApiError.builder()
+                .status(HttpStatus.CONFLICT)
+                .message(exception.getMessage())
+                .build();
+        return buildErrorResponseEntity(apiError);
+    }
+
     // Handles authentication-related errors (e.g., invalid credentials)
     @ExceptionHandler(AuthenticationException.class)
     public ResponseEntity<ApiResponse<?>> handleAuthenticationException(AuthenticationException ex){
@@ -36,8 +36,9 @@ public class GlobalResponseHandler implements ResponseBodyAdvice<Object> {
                 .stream()
                 .anyMatch(route -> request.getURI().getPath().contains(route));
 
-        // If already wrapped in ApiResponse or belongs to an allowed route, return as-is
-        if (body instanceof ApiResponse<?> || isAllowed) {
+        // If already wrapped in ApiResponse or belongs to an allowed route, return as-is.
+        // byte[] bodies are pre-encoded responses (e.g. cached hotel info) that already carry the ApiResponse shape.
+        if (body instanceof ApiResponse<?> || body instanceof byte[] || isAllowed) {
             return body;
         }
 
@@ -0,0 +1,119 @@
+package com.rightmeprove.airbnb.airBnbApp.cache;
+
+import com.rightmeprove.airbnb.airBnbApp.dto.CitySuggestionDto;
+import com.rightmeprove.airbnb.airBnbApp.exception.BadRequestException;
+import com.rightmeprove.airbnb.airBnbApp.repository.InventoryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+
+/**
+ * In-memory city autocomplete for the search box (replaces LIKE queries on the hotel table).
+ *
+ * - Cities (distinct Hotel.city and Inventory.city values) are kept in an array sorted by their
+ *   lower-cased name. A prefix lookup is a binary search for the first match plus a scan of the
+ *   matching range, keeping the best `limit` cities by active hotel count.
+ * - Weights come from HotelFacetIndex: a complete CityHotelCounts event after its build, then one
+ *   event per hotel change with only the affected cities (e.g. a hotel was activated).
+ * - The array is immutable and replaced as a whole on change (copy-on-write), so lookups
+ *   never lock. Changes are rare (hotel activation/edits) and only rebuild the city list,
+ *   which holds one small entry per city.
+ * - Cities without active hotels (inventory-only or no longer active) stay listed with weight 0,
+ *   ranked after every city that has hotels.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CitySuggestionIndex {
+
+    public static final int MAX_SUGGESTIONS = 20;
+
+    /** One city: lower-cased lookup key, display name, active hotels. */
+    private record Entry(String key, String city, int activeHotels) {
+    }
+
+    private static final Comparator<Entry> BY_KEY = Comparator.comparing(Entry::key);
+
+    // Better suggestion first: more active hotels, then alphabetical
+    private static final Comparator<Entry> BY_RANK = Comparator.comparingInt(Entry::activeHotels).reversed()
+            .thenComparing(Entry::key);
+
+    private final InventoryRepository inventoryRepository;
+
+    // Sorted by key; replaced, never modified
+    private volatile Entry[] entries = new Entry[0];
+
+    /**
+     * Up to `limit` cities whose name starts with the prefix (case-insensitive),
+     * most active hotels first. An empty prefix returns the top cities overall.
+     */
+    public List<CitySuggestionDto> suggest(String prefix, int limit) {
+        if (limit < 1 || limit > MAX_SUGGESTIONS) {
+            throw new BadRequestException("limit must be between 1 and " + MAX_SUGGESTIONS);
+        }
+        String key = prefix == null ? "" : prefix.trim().toLowerCase(Locale.ROOT);
+        Entry[] snapshot = entries;
+
+        // Min-heap of the best `limit` matches seen so far (its head is the worst of them)
+        PriorityQueue<Entry> best = new PriorityQueue<>(limit + 1, BY_RANK.reversed());
+        for (int i = firstAtOrAfter(snapshot, key); i < snapshot.length && snapshot[i].key().startsWith(key); i++) {
+            best.offer(snapshot[i]);
+            if (best.size() > limit) {
+                best.poll();
+            }
+        }
+
+        List<Entry> ranked = new ArrayList<>(best);
+        ranked.sort(BY_RANK);
+        return ranked.stream()
+                .map(entry -> new CitySuggestionDto(entry.city(), entry.activeHotels()))
+                .toList();
+    }
+
+    /** Apply new active-hotel counts from HotelFacetIndex (complete after a build, else per change). */
+    @EventListener
+    public synchronized void onCityHotelCounts(HotelFacetIndex.CityHotelCounts counts) {
+        TreeMap<String, Entry> cities = new TreeMap<>();
+        if (counts.complete()) {
+            // Inventory cities first, so the hotel counts below overwrite them
+            for (String city : inventoryRepository.findDistinctCities()) {
+                put(cities, city, 0);
+            }
+        } else {
+            for (Entry entry : entries) {
+                cities.put(entry.key(), entry);
+            }
+        }
+        counts.activeHotelsByCity().forEach((city, activeHotels) -> put(cities, city, activeHotels));
+
+        entries = cities.values().toArray(Entry[]::new);
+        if (counts.complete()) {
+            log.info("Built city suggestion index with {} cities", entries.length);
+        }
+    }
+
+    private void put(Map<String, Entry> cities, String city, int activeHotels) {
+        if (city == null || city.isBlank()) {
+            return;
+        }
+        String name = city.trim();
+        String key = name.toLowerCase(Locale.ROOT);
+        cities.put(key, new Entry(key, name, activeHotels));
+    }
+
+    /** Helper: index of the first entry whose key is >= the given key (binary search). */
+    private static int firstAtOrAfter(Entry[] sorted, String key) {
+        int index = Arrays.binarySearch(sorted, new Entry(key, null, 0), BY_KEY);
+        return index >= 0 ? index : -index - 1;
+    }
+}
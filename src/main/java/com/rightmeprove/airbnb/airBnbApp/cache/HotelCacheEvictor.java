@@ -0,0 +1,68 @@
+package com.rightmeprove.airbnb.airBnbApp.cache;
+
+import com.rightmeprove.airbnb.airBnbApp.entity.Hotel;
+import com.rightmeprove.airbnb.airBnbApp.entity.Room;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.stereotype.Component;
+
+import static com.rightmeprove.airbnb.airBnbApp.util.TransactionUtils.runAfterCommit;
+
+/**
+ * Invalidates the cached state of a hotel and its rooms:
+ * the Hibernate second-level cache entries, the encoded hotel info page (HotelInfoCache),
+ * the price calendar (PriceCalendarCache) and the search results version (SearchVersion).
+ *
+ * Hibernate already keeps the Hotel and Room entity regions in sync for changes made
+ * through the session. This evictor covers what it cannot see:
+ * - the inverse hotel.rooms collection, which is not touched when a Room is created or deleted
+ * - rows changed by bulk/native statements that bypass the session
+ *
+ * Eviction runs after the surrounding transaction commits, so a concurrent reader cannot
+ * re-populate the cache with the old state between the eviction and the commit.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class HotelCacheEvictor {
+
+    private static final String HOTEL_ROOMS_ROLE = Hotel.class.getName() + ".rooms";
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final HotelInfoCache hotelInfoCache;
+    private final SearchVersion searchVersion;
+    private final PriceCalendarCache priceCalendarCache;
+
+    /** Evict a hotel and its rooms collection (hotel updated, activated or deleted). */
+    public void evictHotel(Long hotelId) {
+        runAfterCommit(() -> {
+            Cache cache = cache();
+            cache.evictEntityData(Hotel.class, hotelId);
+            cache.evictCollectionData(HOTEL_ROOMS_ROLE, hotelId);
+            hotelInfoCache.invalidate(hotelId);
+            log.debug("Evicted hotel {} from the second-level cache", hotelId);
+        });
+        priceCalendarCache.invalidateAfterCommit(hotelId);
+        searchVersion.bumpAfterCommit();
+    }
+
+    /** Evict a room and the rooms collection of its hotel (room created, updated or deleted). */
+    public void evictRoom(Long hotelId, Long roomId) {
+        runAfterCommit(() -> {
+            Cache cache = cache();
+            cache.evictEntityData(Room.class, roomId);
+            cache.evictCollectionData(HOTEL_ROOMS_ROLE, hotelId);
+            hotelInfoCache.invalidate(hotelId);
+            log.debug("Evicted room {} of hotel {} from the second-level cache", roomId, hotelId);
+        });
+        priceCalendarCache.invalidateAfterCommit(hotelId);
+        searchVersion.bumpAfterCommit();
+    }
+
+    private Cache cache() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getCache();
+    }
+}
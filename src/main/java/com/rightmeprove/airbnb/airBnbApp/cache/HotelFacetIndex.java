@@ -0,0 +1,252 @@
+package com.rightmeprove.airbnb.airBnbApp.cache;
+
+import com.rightmeprove.airbnb.airBnbApp.dto.HotelFacetsDto;
+import com.rightmeprove.airbnb.airBnbApp.repository.HotelRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import static com.rightmeprove.airbnb.airBnbApp.util.TransactionUtils.runAfterCommit;
+
+/**
+ * In-memory facet index of active hotels: each amenity and each city maps to a compressed
+ * bitmap (RoaringBitmap) of hotel IDs.
+ *
+ * - Facet counts for a selection are bitmap intersections (AND + cardinality), which take
+ *   microseconds instead of a GROUP BY over unnested amenity arrays per request.
+ * - Built from HotelRepository once the application is ready.
+ * - Kept up to date per hotel: HotelService calls refreshAfterCommit(hotelId) on create,
+ *   update, activation and deletion, which re-reads that hotel and moves its ID between bitmaps.
+ *   That only reaches the instance that made the change, so the index is also rebuilt on a
+ *   schedule (hotel.facets.rebuild.cron, every 5 minutes), which bounds how long other
+ *   instances lag behind.
+ * - Only active hotels are indexed (the others never show up in search).
+ * - Cities are keyed lower-cased (like search); amenities exactly as stored (search matches them exactly).
+ *
+ * After every change a CityHotelCounts event carries the new active-hotel count of the affected
+ * cities (all cities after a build), e.g. for CitySuggestionIndex.
+ *
+ * Reads take a shared lock and writes an exclusive one; writes touch a single hotel, so they are short
+ * (the database read of a refresh happens before the exclusive lock is taken).
+ * Hotel IDs are stored as ints (RoaringBitmap is a 32-bit structure).
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class HotelFacetIndex {
+
+    /**
+     * Published after the index changed: active hotels per city (display name) for the affected
+     * cities, or for all cities when complete is true (build). A count of 0 means the city has
+     * no active hotel any more.
+     */
+    public record CityHotelCounts(Map<String, Integer> activeHotelsByCity, boolean complete) {
+    }
+
+    /** What the index holds for one hotel, so an update can remove exactly the old entries. */
+    private record IndexedHotel(String cityKey, List<String> amenities) {
+    }
+
+    private final HotelRepository hotelRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final RoaringBitmap allHotels = new RoaringBitmap();
+    private final Map<String, RoaringBitmap> hotelsByAmenity = new HashMap<>();
+    private final Map<String, RoaringBitmap> hotelsByCity = new HashMap<>();     // lower-cased city -> hotels
+    private final Map<String, String> cityNames = new HashMap<>();               // lower-cased city -> display name
+    private final Map<Integer, IndexedHotel> indexedHotels = new HashMap<>();
+
+    /**
+     * Load all active hotels, after startup and then periodically (changes made on other instances).
+     * The hotels are read before the exclusive lock is taken, so facet reads only wait for the swap.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${hotel.facets.rebuild.cron:0 */5 * * * *}")
+    public synchronized void build() {
+        long start = System.nanoTime();
+        Map<String, Integer> cityCounts = new HashMap<>();
+        List<HotelRepository.HotelFacetRow> rows = hotelRepository.findActiveFacetRows();
+        lock.writeLock().lock();
+        try {
+            clear();
+            for (HotelRepository.HotelFacetRow row : rows) {
+                add(row);
+            }
+            hotelsByCity.forEach((cityKey, hotels) -> cityCounts.put(cityNames.get(cityKey), hotels.getCardinality()));
+            log.info("Built hotel facet index: {} hotels, {} amenities, {} cities in {} ms",
+                    allHotels.getCardinality(), hotelsByAmenity.size(), hotelsByCity.size(),
+                    (System.nanoTime() - start) / 1_000_000);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        eventPublisher.publishEvent(new CityHotelCounts(cityCounts, true));
+    }
+
+    /**
+     * Re-index one hotel once the surrounding transaction commits
+     * (removes it when it was deleted or is not active).
+     */
+    public void refreshAfterCommit(Long hotelId) {
+        runAfterCommit(() -> refresh(hotelId));
+    }
+
+    // synchronized: concurrent refreshes of the same hotel apply their reads in order
+    private synchronized void refresh(Long hotelId) {
+        HotelRepository.HotelFacetRow row = hotelRepository.findFacetRowById(hotelId).orElse(null);
+        int id = Math.toIntExact(hotelId);
+        Map<String, Integer> cityCounts = new HashMap<>();
+        lock.writeLock().lock();
+        try {
+            IndexedHotel previous = indexedHotels.get(id);
+            String previousCity = previous == null || previous.cityKey() == null ? null : cityNames.get(previous.cityKey());
+
+            remove(id);
+            if (row != null && Boolean.TRUE.equals(row.active())) {
+                add(row);
+            }
+
+            if (previousCity != null) {
+                cityCounts.put(previousCity, cityCount(previous.cityKey()));
+            }
+            IndexedHotel current = indexedHotels.get(id);
+            if (current != null && current.cityKey() != null) {
+                cityCounts.put(cityNames.get(current.cityKey()), cityCount(current.cityKey()));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.debug("Re-indexed facets of hotel {}", hotelId);
+        if (!cityCounts.isEmpty()) {
+            eventPublisher.publishEvent(new CityHotelCounts(cityCounts, false));
+        }
+    }
+
+    /**
+     * Facet counts for a selection.
+     * @param city       selected city (any case), or null for all cities
+     * @param amenities  selected amenities (hotel must offer all), may be empty
+     */
+    public HotelFacetsDto facets(String city, Collection<String> amenities) {
+        lock.readLock().lock();
+        try {
+            RoaringBitmap selection = city != null
+                    ? hotelsByCity.getOrDefault(city.trim().toLowerCase(Locale.ROOT), new RoaringBitmap()).clone()
+                    : allHotels.clone();
+            for (String amenity : amenities) {
+                if (amenity != null && !amenity.isBlank()) {
+                    selection.and(hotelsByAmenity.getOrDefault(amenity.trim(), new RoaringBitmap()));
+                }
+            }
+
+            Map<String, Long> amenityCounts = countPerKey(selection, hotelsByAmenity, Map.of());
+            Map<String, Long> cityCounts = countPerKey(selection, hotelsByCity, cityNames);
+            return new HotelFacetsDto((long) selection.getCardinality(), amenityCounts, cityCounts);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Helper: |selection ∩ bitmap| for every key, without materialising the intersections.
+     * Zero counts are dropped, the rest is ordered by count (highest first).
+     */
+    private Map<String, Long> countPerKey(RoaringBitmap selection,
+                                          Map<String, RoaringBitmap> bitmaps,
+                                          Map<String, String> displayNames) {
+        Map<String, Long> counts = new HashMap<>();
+        if (!selection.isEmpty()) {
+            bitmaps.forEach((key, bitmap) -> {
+                long count = RoaringBitmap.andCardinality(selection, bitmap);
+                if (count > 0) {
+                    counts.put(displayNames.getOrDefault(key, key), count);
+                }
+            });
+        }
+
+        Map<String, Long> ordered = new LinkedHashMap<>();
+        counts.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder())
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .forEach(entry -> ordered.put(entry.getKey(), entry.getValue()));
+        return ordered;
+    }
+
+    // ---- mutations (caller holds the write lock) ----
+
+    private int cityCount(String cityKey) {
+        RoaringBitmap hotels = hotelsByCity.get(cityKey);
+        return hotels == null ? 0 : hotels.getCardinality();
+    }
+
+    private void add(HotelRepository.HotelFacetRow row) {
+        int id = Math.toIntExact(row.id());
+        List<String> amenities = row.amenities() == null ? List.of()
+                : Arrays.stream(row.amenities()).filter(Objects::nonNull).distinct().toList();
+        String cityKey = row.city() == null ? null : row.city().trim().toLowerCase(Locale.ROOT);
+
+        allHotels.add(id);
+        for (String amenity : amenities) {
+            hotelsByAmenity.computeIfAbsent(amenity, key -> new RoaringBitmap()).add(id);
+        }
+        if (cityKey != null) {
+            hotelsByCity.computeIfAbsent(cityKey, key -> new RoaringBitmap()).add(id);
+            cityNames.putIfAbsent(cityKey, row.city().trim());
+        }
+        indexedHotels.put(id, new IndexedHotel(cityKey, amenities));
+    }
+
+    private void remove(int id) {
+        IndexedHotel indexed = indexedHotels.remove(id);
+        if (indexed == null) {
+            return;
+        }
+        allHotels.remove(id);
+        for (String amenity : indexed.amenities()) {
+            removeFrom(hotelsByAmenity, amenity, id);
+        }
+        if (indexed.cityKey() != null && removeFrom(hotelsByCity, indexed.cityKey(), id)) {
+            cityNames.remove(indexed.cityKey());
+        }
+    }
+
+    /** Removes the ID from the key's bitmap; drops the key (and returns true) once its bitmap is empty. */
+    private boolean removeFrom(Map<String, RoaringBitmap> bitmaps, String key, int id) {
+        RoaringBitmap bitmap = bitmaps.get(key);
+        if (bitmap == null) {
+            return false;
+        }
+        bitmap.remove(id);
+        if (bitmap.isEmpty()) {
+            bitmaps.remove(key);
+            return true;
+        }
+        return false;
+    }
+
+    private void clear() {
+        allHotels.clear();
+        hotelsByAmenity.clear();
+        hotelsByCity.clear();
+        cityNames.clear();
+        indexedHotels.clear();
+    }
+}
@@ -0,0 +1,100 @@
+package com.rightmeprove.airbnb.airBnbApp.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.RawValue;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.rightmeprove.airbnb.airBnbApp.advice.ApiResponse;
+import com.rightmeprove.airbnb.airBnbApp.dto.HotelInfoDto;
+import com.rightmeprove.airbnb.airBnbApp.util.ETagUtils;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Read-through cache for the public /hotels/{hotelId}/info page.
+ *
+ * - Stores the hotel info already encoded as JSON, so a hit skips the database, the DTO mapping
+ *   and its serialization; only the small ApiResponse envelope (with the current timeStamp)
+ *   is written per response, around the cached JSON.
+ * - Each entry carries a weak ETag built from the hotel ID, the latest updatedAt of the hotel
+ *   and its rooms, and the number of rooms. It only depends on the data, so every instance
+ *   (and every restart) derives the same tag, and If-None-Match can be answered with 304
+ *   straight from the cache.
+ * - Size-bounded (least recently/frequently used entries are evicted first).
+ * - Invalidated by HotelCacheEvictor after a hotel or one of its rooms changes. That only reaches
+ *   this instance: entries also expire after hotel.info.cache.ttl, which bounds how long other
+ *   instances serve the old info (and its old ETag).
+ */
+@Slf4j
+@Component
+public class HotelInfoCache {
+
+    /** Encoded hotel info and its entity tag. */
+    public record CachedResponse(RawValue data, String eTag) {
+    }
+
+    private final ObjectMapper objectMapper;
+
+    // hotelId -> encoded HotelInfoDto
+    private final Cache<Long, CachedResponse> cache;
+
+    public HotelInfoCache(ObjectMapper objectMapper,
+                          MeterRegistry meterRegistry,
+                          @Value("${hotel.info.cache.max-size:10000}") long maxSize,
+                          @Value("${hotel.info.cache.ttl:5m}") Duration ttl) {
+        this.objectMapper = objectMapper;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        // Hit/miss/eviction counts on /actuator/metrics/cache.* (cache=hotelInfo)
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "hotelInfo");
+    }
+
+    /**
+     * Returns the encoded hotel info response.
+     * On a miss the info is loaded with the given loader (HotelService) and encoded once.
+     * Exceptions (e.g. hotel not found) propagate and nothing is cached.
+     */
+    public CachedResponse get(Long hotelId, Function<Long, HotelInfoDto> loader) {
+        // get(key, loader) is atomic per key: concurrent misses trigger a single load,
+        // and an invalidate() during a load waits for it and then removes the result
+        return cache.get(hotelId, id -> encode(id, loader.apply(id)));
+    }
+
+    /** Complete response body: a fresh ApiResponse envelope around the cached hotel info. */
+    public byte[] responseBody(CachedResponse cached) {
+        try {
+            return objectMapper.writeValueAsBytes(new ApiResponse<>(cached.data()));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not encode hotel info response", e);
+        }
+    }
+
+    /** Drop the cached info of a hotel; the next request reloads it. */
+    public void invalidate(Long hotelId) {
+        cache.invalidate(hotelId);
+        log.debug("Invalidated cached hotel info for hotel {}", hotelId);
+    }
+
+    private CachedResponse encode(Long hotelId, HotelInfoDto hotelInfo) {
+        try {
+            // SerializedString keeps the UTF-8 bytes, so the envelope copies them as they are
+            RawValue data = new RawValue(new SerializedString(objectMapper.writeValueAsString(hotelInfo)));
+            String eTag = ETagUtils.weak("hotelInfo", String.valueOf(hotelId),
+                    String.valueOf(hotelInfo.getLastModified()), String.valueOf(hotelInfo.getRooms().size()));
+            return new CachedResponse(data, eTag);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not encode hotel info for hotel " + hotelId, e);
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.rightmeprove.airbnb.airBnbApp.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.rightmeprove.airbnb.airBnbApp.dto.HotelSearchPageDto;
+import com.rightmeprove.airbnb.airBnbApp.dto.HotelSearchRequestDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Short-TTL cache of hotel search results, so repeated popular searches
+ * (same city and weekend) do not reach the database.
+ *
+ * - Keyed by SearchVersion + the canonical search criteria. Any hotel/room change, pricing
+ *   run, booking or inventory update bumps the version, so stale pages stop being served at once
+ *   on the instance that made the change and within the version refresh interval elsewhere;
+ *   old-version entries simply expire. Computing the key reads no database.
+ * - The TTL bounds how long results can lag behind changes the version does not track.
+ * - The same key is used as the search ETag input, so cache hits and 304s agree.
+ * - Misses are coalesced (SingleFlight): concurrent identical searches during a peak share
+ *   one in-flight database query instead of each running the same aggregate.
+ *
+ * Metrics (/actuator/metrics), tagged with the searched city:
+ * - hotel.search.queries{city, result=executed|collapsed}: searches that ran the query vs. joined one
+ * - hotel.search.collapsed.callers{city}: per flight, how many callers were collapsed into it
+ * The city tag is bounded: a city gets its own tag once a search for it returns hotels, up to
+ * hotel.search.metrics.max-cities; other cities (typos, empty results, past the cap) share "_other".
+ * Full keys are never tags; per-key detail is logged at DEBUG.
+ */
+@Slf4j
+@Component
+public class HotelSearchCache {
+
+    private static final String OTHER_CITIES = "_other";
+
+    /** In-flight search: the cache key, plus its city for the metrics. */
+    private record FlightKey(String key, String city) {
+    }
+
+    /** Coalescing meters of one city tag. */
+    private record CityMeters(Counter executedSearches, Counter collapsedSearches,
+                              DistributionSummary collapsedCallersPerFlight) {
+    }
+
+    private final SearchVersion searchVersion;
+
+    // versioned canonical search key -> result page
+    private final Cache<String, HotelSearchPageDto> cache;
+
+    // versioned canonical search key -> in-flight search
+    private final SingleFlight<FlightKey, HotelSearchPageDto> singleFlight;
+
+    private final MeterRegistry meterRegistry;
+    private final int maxTaggedCities;
+    // city -> its meters; cities not in here are counted under OTHER_CITIES
+    private final ConcurrentMap<String, CityMeters> cityMeters = new ConcurrentHashMap<>();
+    private final CityMeters otherCityMeters;
+
+    public HotelSearchCache(SearchVersion searchVersion,
+                            MeterRegistry meterRegistry,
+                            @Value("${hotel.search.cache.ttl:30s}") Duration ttl,
+                            @Value("${hotel.search.cache.max-size:10000}") long maxSize,
+                            @Value("${hotel.search.metrics.max-cities:50}") int maxTaggedCities) {
+        this.searchVersion = searchVersion;
+        this.meterRegistry = meterRegistry;
+        this.maxTaggedCities = maxTaggedCities;
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        // Hit/miss/eviction counts on /actuator/metrics/cache.* (cache=hotelSearch)
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "hotelSearch");
+
+        this.otherCityMeters = registerMeters(OTHER_CITIES);
+        this.singleFlight = new SingleFlight<>(this::onFlightCompleted);
+    }
+
+    /**
+     * Cache key of a normalised search request.
+     * The version is read here, BEFORE any query runs: a change committed meanwhile can only
+     * make the key older, never label old results with the new version.
+     */
+    public String keyOf(HotelSearchRequestDto normalizedRequest) {
+        return searchVersion.current() + "|" + normalizedRequest.toCacheKey();
+    }
+
+    /**
+     * Cached page for the key, or run the search (once for all concurrent callers) and cache its result.
+     * @param city normalised city of the search (metrics tag only)
+     */
+    public HotelSearchPageDto get(String key, String city, Supplier<HotelSearchPageDto> search) {
+        HotelSearchPageDto page = cache.getIfPresent(key);
+        if (page != null) {
+            return page;
+        }
+
+        SingleFlight.Result<HotelSearchPageDto> result = singleFlight.execute(new FlightKey(key, city), () -> {
+            HotelSearchPageDto loaded = search.get();
+            // Cached before the flight ends, so later callers hit the cache instead of starting a new flight
+            cache.put(key, loaded);
+            if (!loaded.getContent().isEmpty()) {
+                tagCity(city);
+            }
+            return loaded;
+        });
+        CityMeters meters = metersOf(city);
+        (result.collapsed() ? meters.collapsedSearches() : meters.executedSearches()).increment();
+        return result.value();
+    }
+
+    private void onFlightCompleted(FlightKey flightKey, int collapsedCallers) {
+        metersOf(flightKey.city()).collapsedCallersPerFlight().record(collapsedCallers);
+        if (collapsedCallers > 0) {
+            log.debug("Collapsed {} concurrent searches into one query for {}", collapsedCallers, flightKey.key());
+        }
+    }
+
+    private CityMeters metersOf(String city) {
+        CityMeters meters = cityMeters.get(city);
+        return meters != null ? meters : otherCityMeters;
+    }
+
+    /** Give a city its own tag, unless the cap is reached (then it stays under OTHER_CITIES). */
+    private synchronized void tagCity(String city) {
+        if (!cityMeters.containsKey(city) && cityMeters.size() < maxTaggedCities) {
+            cityMeters.put(city, registerMeters(city));
+        }
+    }
+
+    private CityMeters registerMeters(String city) {
+        return new CityMeters(
+                Counter.builder("hotel.search.queries")
+                        .tag("city", city)
+                        .tag("result", "executed")
+                        .description("Search misses that ran the database query")
+                        .register(meterRegistry),
+                Counter.builder("hotel.search.queries")
+                        .tag("city", city)
+                        .tag("result", "collapsed")
+                        .description("Search misses served by an identical in-flight query")
+                        .register(meterRegistry),
+                DistributionSummary.builder("hotel.search.collapsed.callers")
+                        .tag("city", city)
+                        .description("Callers collapsed into each search query")
+                        .register(meterRegistry));
+    }
+}
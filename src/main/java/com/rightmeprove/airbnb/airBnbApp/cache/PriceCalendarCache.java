@@ -0,0 +1,160 @@
+package com.rightmeprove.airbnb.airBnbApp.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.rightmeprove.airbnb.airBnbApp.dto.CalendarDayDto;
+import com.rightmeprove.airbnb.airBnbApp.dto.HotelCalendarDto;
+import com.rightmeprove.airbnb.airBnbApp.exception.BadRequestException;
+import com.rightmeprove.airbnb.airBnbApp.exception.ResourceNotFoundException;
+import com.rightmeprove.airbnb.airBnbApp.repository.HotelMinPriceRepository;
+import com.rightmeprove.airbnb.airBnbApp.repository.HotelRepository;
+import com.rightmeprove.airbnb.airBnbApp.repository.InventoryRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.rightmeprove.airbnb.airBnbApp.util.TransactionUtils.runAfterCommit;
+
+/**
+ * Per-hotel price calendar for the public /hotels/{hotelId}/calendar endpoint.
+ *
+ * - Each entry covers the inventory horizon from the day it was loaded, as two primitive arrays
+ *   indexed by day: min nightly price in minor units (long) and bookable rooms (int). That is
+ *   ~4 KB per hotel for a year, instead of the Inventory/HotelMinPrice entities.
+ * - Loaded with two aggregate queries (HotelMinPrice series + per-day availability from Inventory).
+ * - Invalidated after commit by the writes that change it: the pricing job (prices), booking
+ *   init/cancel and inventory updates (availability), room/hotel changes (HotelCacheEvictor).
+ *   Confirming a booking moves rooms from reserved to booked and leaves availability unchanged.
+ * - Size-bounded; the TTL is only a safety net for changes made outside the application.
+ */
+@Slf4j
+@Component
+public class PriceCalendarCache {
+
+    public static final int MAX_CALENDAR_DAYS = 93;
+    private static final int DEFAULT_CALENDAR_DAYS = 30;
+
+    private static final long NO_PRICE = -1;
+
+    /** Compact calendar of one hotel: index i is firstDay + i. */
+    private record HotelCalendar(LocalDate firstDay, long[] minPrices, int[] availableRooms) {
+
+        boolean covers(LocalDate startDate, LocalDate endDate) {
+            return !startDate.isBefore(firstDay) && ChronoUnit.DAYS.between(firstDay, endDate) < minPrices.length;
+        }
+    }
+
+    private final HotelRepository hotelRepository;
+    private final HotelMinPriceRepository hotelMinPriceRepository;
+    private final InventoryRepository inventoryRepository;
+
+    // Inventory exists from today up to today + horizonDays
+    private final int horizonDays;
+
+    // hotelId -> calendar from its load day
+    private final Cache<Long, HotelCalendar> cache;
+
+    public PriceCalendarCache(HotelRepository hotelRepository,
+                              HotelMinPriceRepository hotelMinPriceRepository,
+                              InventoryRepository inventoryRepository,
+                              MeterRegistry meterRegistry,
+                              @Value("${hotel.calendar.cache.max-size:5000}") long maxSize,
+                              @Value("${hotel.calendar.cache.ttl:1h}") Duration ttl,
+                              @Value("${inventory.horizon.days}") int horizonDays) {
+        this.hotelRepository = hotelRepository;
+        this.hotelMinPriceRepository = hotelMinPriceRepository;
+        this.inventoryRepository = inventoryRepository;
+        this.horizonDays = horizonDays;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        // Hit/miss/eviction counts on /actuator/metrics/cache.* (cache=hotelCalendar)
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "hotelCalendar");
+    }
+
+    /**
+     * Prices and availability of a hotel per day, endDate inclusive.
+     * Defaults: from today, 30 days. At most MAX_CALENDAR_DAYS days within the inventory horizon.
+     */
+    public HotelCalendarDto getCalendar(Long hotelId, LocalDate startDate, LocalDate endDate) {
+        LocalDate today = LocalDate.now();
+        LocalDate from = startDate != null ? startDate : today;
+        LocalDate to = endDate != null ? endDate : from.plusDays(DEFAULT_CALENDAR_DAYS - 1);
+        if (from.isBefore(today)) {
+            throw new BadRequestException("startDate must not be in the past");
+        }
+        if (to.isBefore(from) || ChronoUnit.DAYS.between(from, to) >= MAX_CALENDAR_DAYS) {
+            throw new BadRequestException("The calendar covers 1 to " + MAX_CALENDAR_DAYS + " days, endDate included");
+        }
+        if (ChronoUnit.DAYS.between(today, to) > horizonDays) {
+            throw new BadRequestException("endDate must be within " + horizonDays + " days from today");
+        }
+
+        HotelCalendar calendar = cache.get(hotelId, this::load);
+        if (!calendar.covers(from, to)) {
+            // Loaded on an earlier day: its horizon ends before the requested range
+            cache.invalidate(hotelId);
+            calendar = cache.get(hotelId, this::load);
+        }
+
+        int offset = (int) ChronoUnit.DAYS.between(calendar.firstDay(), from);
+        int days = (int) ChronoUnit.DAYS.between(from, to) + 1;
+        List<CalendarDayDto> result = new ArrayList<>(days);
+        for (int i = offset; i < offset + days; i++) {
+            long price = calendar.minPrices()[i];
+            result.add(new CalendarDayDto(
+                    calendar.firstDay().plusDays(i),
+                    price == NO_PRICE ? null : BigDecimal.valueOf(price, 2),
+                    calendar.availableRooms()[i]));
+        }
+        return new HotelCalendarDto(hotelId, result);
+    }
+
+    /** Drop the hotel's calendar once the surrounding transaction commits; the next request reloads it. */
+    public void invalidateAfterCommit(Long hotelId) {
+        runAfterCommit(() -> {
+            cache.invalidate(hotelId);
+            log.debug("Invalidated price calendar of hotel {}", hotelId);
+        });
+    }
+
+    private HotelCalendar load(Long hotelId) {
+        if (!hotelRepository.existsById(hotelId)) {
+            throw new ResourceNotFoundException("Hotel not found with ID: " + hotelId);
+        }
+        LocalDate firstDay = LocalDate.now();
+        LocalDate lastDay = firstDay.plusDays(horizonDays);
+
+        long[] minPrices = new long[horizonDays + 1];
+        Arrays.fill(minPrices, NO_PRICE);
+        for (HotelMinPriceRepository.DailyPrice row
+                : hotelMinPriceRepository.findDailyPricesByHotelId(hotelId, firstDay, lastDay)) {
+            int day = (int) ChronoUnit.DAYS.between(firstDay, row.date());
+            long price = row.price().movePointRight(2).longValue();
+            if (minPrices[day] == NO_PRICE || price < minPrices[day]) {
+                minPrices[day] = price;
+            }
+        }
+
+        int[] availableRooms = new int[horizonDays + 1];
+        for (InventoryRepository.DailyAvailability row
+                : inventoryRepository.findDailyAvailabilityByHotelId(hotelId, firstDay, lastDay)) {
+            availableRooms[(int) ChronoUnit.DAYS.between(firstDay, row.date())] = Math.toIntExact(row.availableRooms());
+        }
+
+        log.debug("Loaded price calendar of hotel {} from {}", hotelId, firstDay);
+        return new HotelCalendar(firstDay, minPrices, availableRooms);
+    }
+}
@@ -0,0 +1,104 @@
+package com.rightmeprove.airbnb.airBnbApp.cache;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.rightmeprove.airbnb.airBnbApp.util.TransactionUtils.runAfterCommit;
+
+/**
+ * Version of the data hotel search results depend on: hotels (city, active flag, details),
+ * HotelMinPrice rows and inventory availability (booked, reserved, closed and total counts).
+ *
+ * - Kept in a database sequence (search_version_seq, schema.sql), so every instance reads the
+ *   same version and it survives restarts.
+ * - Bumped after commit whenever a hotel/room changes, the pricing job rewrites min prices,
+ *   or a booking or inventory update changes which rooms are available.
+ * - Each instance holds the version in memory: current() never touches the database, so cache
+ *   hits and 304s stay database-free. The local copy follows this instance's own bumps at once
+ *   and other instances' bumps within search.version.refresh-interval (read on its own thread,
+ *   not on the shared scheduler where long jobs would delay it).
+ * - Search ETags are derived from this version, so a matching If-None-Match can be answered
+ *   with 304 without running the search query.
+ * - Sequences are not transactional: a bump is never rolled back or blocked by other writers,
+ *   at worst a version is skipped, which only costs a 200 instead of a 304.
+ */
+@Slf4j
+@Component
+public class SearchVersion implements SmartInitializingSingleton {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration refreshInterval;
+
+    // Latest version seen by this instance (only ever moves forward)
+    private final AtomicLong version = new AtomicLong();
+
+    private final ScheduledExecutorService refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "search-version-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public SearchVersion(JdbcTemplate jdbcTemplate,
+                         @Value("${search.version.refresh-interval:1s}") Duration refreshInterval) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.refreshInterval = refreshInterval;
+    }
+
+    /** Read the shared version before traffic (schema.sql has created the sequence by now), then follow it. */
+    @Override
+    public void afterSingletonsInstantiated() {
+        refresh();
+        long millis = refreshInterval.toMillis();
+        refresher.scheduleWithFixedDelay(this::refreshQuietly, millis, millis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refresher.shutdownNow();
+    }
+
+    /** Current version token. Read it BEFORE querying, so a concurrent change can only make the tag older. */
+    public String current() {
+        return String.valueOf(version.get());
+    }
+
+    /** Mark search results as changed once the surrounding transaction commits. */
+    public void bumpAfterCommit() {
+        runAfterCommit(() -> {
+            Long bumped = jdbcTemplate.queryForObject("SELECT nextval('search_version_seq')", Long.class);
+            advanceTo(bumped);
+            log.debug("Search data version is now {}", bumped);
+        });
+    }
+
+    private void refresh() {
+        // Before the first nextval the sequence reports its start value with is_called = false
+        advanceTo(jdbcTemplate.queryForObject(
+                "SELECT CASE WHEN is_called THEN last_value ELSE last_value - 1 END FROM search_version_seq", Long.class));
+    }
+
+    private void refreshQuietly() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            // Keep the last known version; the next tick tries again
+            log.warn("Could not refresh the search version", e);
+        }
+    }
+
+    private void advanceTo(Long seen) {
+        if (seen != null) {
+            version.accumulateAndGet(seen, Math::max);
+        }
+    }
+}
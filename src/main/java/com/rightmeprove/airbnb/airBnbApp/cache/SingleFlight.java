@@ -0,0 +1,80 @@
+package com.rightmeprove.airbnb.airBnbApp.cache;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Request coalescing ("single flight"): concurrent calls with the same key share one execution.
+ *
+ * - The first caller for a key (the leader) runs the supplier on its own thread.
+ * - Callers arriving while it runs wait for the same future instead of running it again.
+ * - Once the leader finishes the key is released; the next call starts a new flight.
+ * - Exceptions are shared too: every waiter of a failed flight gets the leader's exception.
+ *
+ * @param <K> key type (must implement equals/hashCode)
+ * @param <V> result type
+ */
+public class SingleFlight<K, V> {
+
+    /** Outcome of one call: the value and whether it was served by another caller's flight. */
+    public record Result<V>(V value, boolean collapsed) {
+    }
+
+    /** Called by the leader when its flight ends, with the number of callers that joined it. */
+    @FunctionalInterface
+    public interface FlightListener<K> {
+        void onFlightCompleted(K key, int collapsedCallers);
+    }
+
+    private static final class Flight<V> {
+        private final CompletableFuture<V> future = new CompletableFuture<>();
+        private final AtomicInteger waiters = new AtomicInteger();
+    }
+
+    private final ConcurrentMap<K, Flight<V>> inFlight = new ConcurrentHashMap<>();
+    private final FlightListener<K> listener;
+
+    public SingleFlight(FlightListener<K> listener) {
+        this.listener = listener;
+    }
+
+    public Result<V> execute(K key, Supplier<V> supplier) {
+        Flight<V> flight = new Flight<>();
+        Flight<V> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            existing.waiters.incrementAndGet();
+            return new Result<>(await(existing.future), true);
+        }
+
+        try {
+            V value = supplier.get();
+            flight.future.complete(value);
+            return new Result<>(value, false);
+        } catch (RuntimeException | Error e) {
+            flight.future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+            listener.onFlightCompleted(key, flight.waiters.get());
+        }
+    }
+
+    private V await(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            // Re-throw the leader's own exception (e.g. BadRequestException) rather than the wrapper
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -15,6 +15,9 @@ public class MapperConfig {
      * - By defining this @Bean, we tell Spring how to create and manage a single instance of ModelMapper.
      * - Once registered, ModelMapper can be injected anywhere in the app using @Autowired.
      * - Central place to add custom mapping configurations if needed.
+     *
+     * Note: the hot entity ↔ DTO pairs (Booking, Inventory, Hotel, Room) use the
+     * hand-written mappers in the mapper package instead of this reflective mapper.
      */
     @Bean
     public ModelMapper modelMapper() {
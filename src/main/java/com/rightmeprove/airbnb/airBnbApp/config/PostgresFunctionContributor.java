@@ -0,0 +1,28 @@
+package com.rightmeprove.airbnb.airBnbApp.config;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * Registers PostgreSQL-specific functions for use in JPQL queries.
+ * Loaded by Hibernate through META-INF/services/org.hibernate.boot.model.FunctionContributor.
+ *
+ * text_array_contains_all(column, :values)
+ * - Renders as: column @> CAST(? AS text[])
+ * - Hibernate's own array_includes() binds a String[] parameter as varchar[], and PostgreSQL
+ *   has no text[] @> varchar[] operator, so the parameter is cast to the column type here.
+ * - Stays a plain @> on the column, so the GIN indexes on the amenity arrays can be used.
+ */
+public class PostgresFunctionContributor implements FunctionContributor {
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        functionContributions.getFunctionRegistry()
+                .patternDescriptorBuilder("text_array_contains_all", "(?1 @> cast(?2 as text[]))")
+                .setExactArgumentCount(2)
+                .setInvariantType(functionContributions.getTypeConfiguration()
+                        .getBasicTypeRegistry().resolve(StandardBasicTypes.BOOLEAN))
+                .register();
+    }
+}
@@ -1,42 +1,173 @@
 package com.rightmeprove.airbnb.airBnbApp.controller;
 
-import com.rightmeprove.airbnb.airBnbApp.dto.HotelDto;
-import com.rightmeprove.airbnb.airBnbApp.dto.HotelInfoDto;
-import com.rightmeprove.airbnb.airBnbApp.dto.HotelPriceDto;
+import com.rightmeprove.airbnb.airBnbApp.cache.CitySuggestionIndex;
+import com.rightmeprove.airbnb.airBnbApp.cache.HotelFacetIndex;
+import com.rightmeprove.airbnb.airBnbApp.cache.HotelInfoCache;
+import com.rightmeprove.airbnb.airBnbApp.cache.HotelSearchCache;
+import com.rightmeprove.airbnb.airBnbApp.cache.PriceCalendarCache;
+import com.rightmeprove.airbnb.airBnbApp.dto.CitySuggestionDto;
+import com.rightmeprove.airbnb.airBnbApp.dto.FlexibleSearchRequestDto;
+import com.rightmeprove.airbnb.airBnbApp.dto.FlexibleStayDto;
+import com.rightmeprove.airbnb.airBnbApp.dto.HotelCalendarDto;
+import com.rightmeprove.airbnb.airBnbApp.dto.HotelFacetsDto;
+import com.rightmeprove.airbnb.airBnbApp.dto.HotelSearchPageDto;
 import com.rightmeprove.airbnb.airBnbApp.dto.HotelSearchRequestDto;
 import com.rightmeprove.airbnb.airBnbApp.service.HotelService;
 import com.rightmeprove.airbnb.airBnbApp.service.InventoryService;
+import com.rightmeprove.airbnb.airBnbApp.util.ETagUtils;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.data.domain.Page;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/hotels") // Base route for all hotel-related endpoints
 @RequiredArgsConstructor // Auto-injects required dependencies via constructor
 public class HotelBrowserController {
 
+    // Hotel info changes only when the owner edits it -> clients/CDN may reuse it for a minute
+    private static final CacheControl HOTEL_INFO_CACHE_CONTROL = CacheControl.maxAge(60, TimeUnit.SECONDS).cachePublic();
+
+    // Search results follow prices and availability -> short reuse, then revalidate with the ETag
+    private static final CacheControl SEARCH_CACHE_CONTROL = CacheControl.maxAge(30, TimeUnit.SECONDS).cachePublic();
+
     private final InventoryService inventoryService;
     private final HotelService hotelService;
+    private final HotelInfoCache hotelInfoCache;
+    private final HotelSearchCache hotelSearchCache;
+    private final HotelFacetIndex hotelFacetIndex;
+    private final CitySuggestionIndex citySuggestionIndex;
+    private final PriceCalendarCache priceCalendarCache;
 
     /**
      * Searches available hotels based on filters like city, date range, guests, etc.
+     * Criteria come as query parameters, so proxies/CDNs can cache the response:
+     * GET /hotels/search?city=Delhi&startDate=2025-09-14&endDate=2025-09-15&roomsCount=1&size=10
+     * Next page: same parameters plus cursor=<nextCursor of the previous page>.
+     *
+     * - Criteria are validated and canonicalised into a stable cache key.
+     * - Results come from HotelSearchCache (short TTL) when the same search ran recently.
+     * - Conditional GET: the weak ETag is derived from the same key (criteria + SearchVersion),
+     *   so a matching If-None-Match returns 304 without running the query.
      * @param hotelSearchRequestDto search criteria (location, check-in/out, guests)
-     * @return paginated list of matching hotels with pricing info
+     * @return one page of matching hotels with pricing info, ordered by price
      */
     @GetMapping("/search")
-    public ResponseEntity<Page<HotelPriceDto>> searchHotels(@RequestBody HotelSearchRequestDto hotelSearchRequestDto) {
-        Page<HotelPriceDto> page = inventoryService.searchHotels(hotelSearchRequestDto);
-        return ResponseEntity.ok(page);
+    public ResponseEntity<HotelSearchPageDto> searchHotels(@ModelAttribute HotelSearchRequestDto hotelSearchRequestDto,
+                                                            ServletWebRequest webRequest) {
+        HotelSearchRequestDto searchRequest = inventoryService.normalizeSearchRequest(hotelSearchRequestDto);
+        String cacheKey = hotelSearchCache.keyOf(searchRequest);
+
+        String eTag = ETagUtils.weak(cacheKey);
+        if (isNotModified(webRequest, eTag, SEARCH_CACHE_CONTROL)) {
+            return null; // 304 already written
+        }
+
+        HotelSearchPageDto page = hotelSearchCache.get(cacheKey, searchRequest.getCity(), () -> inventoryService.searchHotels(searchRequest));
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .cacheControl(SEARCH_CACHE_CONTROL)
+                .body(page);
+    }
+
+    /**
+     * Flexible-date search: cheapest stays of a given length anywhere in a date range, in one request:
+     * GET /hotels/search/flexible?city=Goa&startDate=2025-11-01&endDate=2025-11-30&nights=3&roomsCount=1&limit=10
+     * @param flexibleSearchRequestDto city, date range, stay length, rooms and number of results
+     * @return the cheapest stay per hotel (check-in, check-out, total), cheapest hotels first
+     */
+    @GetMapping("/search/flexible")
+    public ResponseEntity<List<FlexibleStayDto>> searchFlexibleStays(@ModelAttribute FlexibleSearchRequestDto flexibleSearchRequestDto) {
+        return ResponseEntity.ok(inventoryService.searchFlexibleStays(flexibleSearchRequestDto));
+    }
+
+    /**
+     * Facet counts for the search UI, served from the in-memory HotelFacetIndex (no database access):
+     * GET /hotels/facets?city=Delhi&amenities=WiFi&amenities=Pool
+     * Counts cover active hotels in the city (all cities when omitted) that offer all selected
+     * amenities; date and price criteria are not part of the facets.
+     * @param city      selected city (optional, any case)
+     * @param amenities selected amenities (optional, repeatable)
+     * @return total matching hotels plus counts per amenity and per city
+     */
+    @GetMapping("/facets")
+    public ResponseEntity<HotelFacetsDto> getFacets(@RequestParam(required = false) String city,
+                                                    @RequestParam(required = false) List<String> amenities) {
+        String selectedCity = city == null || city.isBlank() ? null : city;
+        return ResponseEntity.ok(hotelFacetIndex.facets(selectedCity, amenities == null ? List.of() : amenities));
+    }
+
+    /**
+     * City autocomplete for the search box, served from the in-memory CitySuggestionIndex:
+     * GET /hotels/cities/suggest?prefix=de&limit=10
+     * @param prefix start of the city name (case-insensitive; empty = top cities)
+     * @param limit  maximum number of suggestions (1-20, default 10)
+     * @return matching cities, most active hotels first
+     */
+    @GetMapping("/cities/suggest")
+    public ResponseEntity<List<CitySuggestionDto>> suggestCities(@RequestParam(defaultValue = "") String prefix,
+                                                                 @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(citySuggestionIndex.suggest(prefix, limit));
     }
 
     /**
      * Fetches detailed information about a specific hotel.
+     * Served from HotelInfoCache as pre-encoded JSON (already wrapped in the ApiResponse shape),
+     * so repeated views skip the database and the DTO serialization. A matching If-None-Match
+     * on a cached hotel returns 304 straight from the cache.
      * @param hotelId unique ID of the hotel
      * @return full hotel details (description, rooms, amenities, etc.)
      */
     @GetMapping("/{hotelId}/info")
-    public ResponseEntity<HotelInfoDto> getHotelInfo(@PathVariable Long hotelId) {
-        return ResponseEntity.ok(hotelService.getHotelInfoById(hotelId));
+    public ResponseEntity<byte[]> getHotelInfo(@PathVariable Long hotelId, ServletWebRequest webRequest) {
+        HotelInfoCache.CachedResponse hotelInfo = hotelInfoCache.get(hotelId, hotelService::getHotelInfoById);
+        if (isNotModified(webRequest, hotelInfo.eTag(), HOTEL_INFO_CACHE_CONTROL)) {
+            return null; // 304 already written
+        }
+
+        return ResponseEntity.ok()
+                .eTag(hotelInfo.eTag())
+                .cacheControl(HOTEL_INFO_CACHE_CONTROL)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(hotelInfoCache.responseBody(hotelInfo));
+    }
+
+    /**
+     * Nightly min price and bookable rooms per day, for the hotel page's month calendar:
+     * GET /hotels/{hotelId}/calendar?startDate=2025-11-01&endDate=2025-11-30
+     * Served from PriceCalendarCache (compact per-hotel arrays, reloaded after price/booking changes).
+     * @param hotelId   unique ID of the hotel
+     * @param startDate first day (default today)
+     * @param endDate   last day, inclusive (default 30 days from startDate)
+     * @return one entry per day with min price (null when not priced) and available rooms
+     */
+    @GetMapping("/{hotelId}/calendar")
+    public ResponseEntity<HotelCalendarDto> getHotelCalendar(
+            @PathVariable Long hotelId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        return ResponseEntity.ok(priceCalendarCache.getCalendar(hotelId, startDate, endDate));
+    }
+
+    /**
+     * Helper: answer If-None-Match.
+     * When the tag matches, Spring sets status 304 + ETag and the handler returns null,
+     * so no body is written (and GlobalResponseHandler is never involved).
+     */
+    private boolean isNotModified(ServletWebRequest webRequest, String eTag, CacheControl cacheControl) {
+        if (!webRequest.checkNotModified(eTag)) {
+            return false;
+        }
+        // A 304 must carry the same Cache-Control as the 200 it stands in for
+        webRequest.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, cacheControl.getHeaderValue());
+        return true;
     }
 }
@@ -1,18 +1,27 @@
 package com.rightmeprove.airbnb.airBnbApp.controller;
 
-import com.rightmeprove.airbnb.airBnbApp.dto.BookingDto;
+import com.rightmeprove.airbnb.airBnbApp.dto.BookingPageDto;
+import com.rightmeprove.airbnb.airBnbApp.dto.HotelDeletionJobDto;
 import com.rightmeprove.airbnb.airBnbApp.dto.HotelDto;
 import com.rightmeprove.airbnb.airBnbApp.dto.HotelReportDto;
+import com.rightmeprove.airbnb.airBnbApp.exception.BadRequestException;
 import com.rightmeprove.airbnb.airBnbApp.service.BookingService;
 import com.rightmeprove.airbnb.airBnbApp.service.HotelService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Locale;
 
 @RestController
 @RequestMapping("/admin/hotels") // Admin-specific endpoints for managing hotels
@@ -61,11 +70,20 @@ public class HotelController {
 
     /**
      * Deletes a hotel by ID.
+     * The hotel is deactivated at once and deleted in the background: 202 Accepted with the
+     * deletion job, whose progress is served by GET /admin/hotels/{hotelId}/deletion.
      */
     @DeleteMapping("/{hotelId}")
-    public ResponseEntity<Void> deleteHotelById(@PathVariable Long hotelId) {
-        hotelService.deleteHotelById(hotelId);
-        return ResponseEntity.noContent().build();
+    public ResponseEntity<HotelDeletionJobDto> deleteHotelById(@PathVariable Long hotelId) {
+        return ResponseEntity.accepted().body(hotelService.deleteHotelById(hotelId));
+    }
+
+    /**
+     * Status and progress (rows deleted per table) of a hotel's deletion.
+     */
+    @GetMapping("/{hotelId}/deletion")
+    public ResponseEntity<HotelDeletionJobDto> getHotelDeletion(@PathVariable Long hotelId) {
+        return ResponseEntity.ok(hotelService.getHotelDeletion(hotelId));
     }
 
     /**
@@ -78,16 +96,50 @@ public class HotelController {
     }
 
     /**
-     * Retrieves all bookings for a specific hotel.
+     * Retrieves one page of bookings for a specific hotel, newest first:
+     * GET /admin/hotels/{hotelId}/bookings?status=CONFIRMED&status=CANCELLED&size=20
+     * Next page: same parameters plus cursor=<nextCursor of the previous page>.
      */
     @GetMapping("/{hotelId}/bookings")
-    public ResponseEntity<List<BookingDto>> getAllBookingsByHotelId(@PathVariable Long hotelId) {
-        return ResponseEntity.ok(bookingService.getAllBookingsByHotelId(hotelId));
+    public ResponseEntity<BookingPageDto> getAllBookingsByHotelId(@PathVariable Long hotelId,
+                                                                  @RequestParam(required = false) List<String> status,
+                                                                  @RequestParam(required = false) String cursor,
+                                                                  @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(bookingService.getAllBookingsByHotelId(hotelId, status, cursor, size));
+    }
+
+    /**
+     * Streams the bookings of a hotel as a CSV (default) or NDJSON download:
+     * GET /admin/hotels/{hotelId}/bookings/export?format=ndjson&startDate=2025-01-01&endDate=2025-12-31
+     * Dates filter on the booking creation date and are optional. Rows are written as they are
+     * read from the database, so large hotels export in constant memory.
+     */
+    @GetMapping("/{hotelId}/bookings/export")
+    public ResponseEntity<StreamingResponseBody> exportBookingsByHotelId(
+            @PathVariable Long hotelId,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        BookingService.ExportFormat exportFormat;
+        try {
+            exportFormat = BookingService.ExportFormat.valueOf(format.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("format must be csv or ndjson");
+        }
+
+        StreamingResponseBody body = bookingService.exportBookingsByHotelId(hotelId, startDate, endDate, exportFormat);
+        boolean csv = exportFormat == BookingService.ExportFormat.CSV;
+        String fileName = "hotel-" + hotelId + "-bookings." + (csv ? "csv" : "ndjson");
+        return ResponseEntity.ok()
+                .contentType(csv ? new MediaType("text", "csv", StandardCharsets.UTF_8) : MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(fileName).build().toString())
+                .body(body);
     }
 
     /**
      * Generates a report for a specific hotel within a date range.
-     * Defaults to last 1 month if no dates are provided.
+     * Defaults to last 1 month if no dates are provided; at most 366 days, endDate included.
+     * Includes bookings, revenue, cancellations, occupancy, ADR and RevPAR, in total and per day.
      */
     @GetMapping("/{hotelId}/reports")
     public ResponseEntity<HotelReportDto> getHotelReport(@PathVariable Long hotelId,
@@ -1,12 +1,17 @@
 package com.rightmeprove.airbnb.airBnbApp.controller;
 
+import com.rightmeprove.airbnb.airBnbApp.dto.BulkInventoryUpdateRequestDto;
 import com.rightmeprove.airbnb.airBnbApp.dto.InventoryDto;
+import com.rightmeprove.airbnb.airBnbApp.dto.InventoryPatchResultDto;
+import com.rightmeprove.airbnb.airBnbApp.dto.InventoryRangeDto;
 import com.rightmeprove.airbnb.airBnbApp.dto.UpdateInventoryRequestDto;
 import com.rightmeprove.airbnb.airBnbApp.service.InventoryService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -26,6 +31,22 @@ public class InventoryController {
         return ResponseEntity.ok(inventoryService.getAllInventoryByRoom(roomId));
     }
 
+    /**
+     * Compact inventory of a room over a date range, one array per field:
+     * GET /admin/inventory/rooms/{roomId}/range?startDate=2025-11-01&endDate=2025-11-30
+     * @param roomId    unique ID of the room
+     * @param startDate first day (default today)
+     * @param endDate   last day, inclusive (default 30 days from startDate)
+     * @return start/end date plus price, surge, booked, reserved, total and closed arrays indexed by day
+     */
+    @GetMapping("/rooms/{roomId}/range")
+    public ResponseEntity<InventoryRangeDto> getInventoryRangeByRoom(
+            @PathVariable Long roomId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        return ResponseEntity.ok(inventoryService.getInventoryRangeByRoom(roomId, startDate, endDate));
+    }
+
     /**
      * Updates inventory for a specific room (e.g., availability, price changes).
      * @param roomId unique ID of the room
@@ -38,4 +59,17 @@ public class InventoryController {
         inventoryService.updateInventory(roomId, updateInventoryRequestDto);
         return ResponseEntity.noContent().build(); // standard for successful update with no body
     }
+
+    /**
+     * Applies many inventory patches (room, date range, surgeFactor and/or closed) in one transaction,
+     * e.g. closing every room of a hotel or a weekend surge over many rooms.
+     * Invalid patches (bad dates/values, unknown or foreign room) are skipped and reported.
+     * @param bulkInventoryUpdateRequestDto up to 500 patches
+     * @return one result per patch, in request order (applied, updated days or error)
+     */
+    @PatchMapping("/rooms")
+    public ResponseEntity<List<InventoryPatchResultDto>> bulkUpdateInventory(
+            @RequestBody BulkInventoryUpdateRequestDto bulkInventoryUpdateRequestDto) {
+        return ResponseEntity.ok(inventoryService.bulkUpdateInventory(bulkInventoryUpdateRequestDto));
+    }
 }
@@ -1,6 +1,6 @@
 package com.rightmeprove.airbnb.airBnbApp.controller;
 
-import com.rightmeprove.airbnb.airBnbApp.dto.BookingDto;
+import com.rightmeprove.airbnb.airBnbApp.dto.BookingPageDto;
 import com.rightmeprove.airbnb.airBnbApp.dto.ProfileUpdateRequestDto;
 import com.rightmeprove.airbnb.airBnbApp.dto.UserDto;
 import com.rightmeprove.airbnb.airBnbApp.service.BookingService;
@@ -31,12 +31,17 @@ public class UserController {
     }
 
     /**
-     * Retrieves all bookings made by the current user.
-     * @return list of BookingDto
+     * Retrieves one page of bookings made by the current user, newest first.
+     * @param status optional status filter (repeatable, e.g. status=CONFIRMED)
+     * @param cursor nextCursor of the previous page (omit for the first page)
+     * @param size   page size (1-100, default 20)
+     * @return page of BookingDto with the cursor of the next page
      */
     @GetMapping("/myBookings")
-    public ResponseEntity<List<BookingDto>> getMyBookings() {
-        return ResponseEntity.ok(bookingService.getMyBookings());
+    public ResponseEntity<BookingPageDto> getMyBookings(@RequestParam(required = false) List<String> status,
+                                                        @RequestParam(required = false) String cursor,
+                                                        @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(bookingService.getMyBookings(status, cursor, size));
     }
 
     /**
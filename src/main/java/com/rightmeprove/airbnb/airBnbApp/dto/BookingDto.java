@@ -1,11 +1,8 @@
 package com.rightmeprove.airbnb.airBnbApp.dto;
 
-import com.rightmeprove.airbnb.airBnbApp.entity.Guest;
-import com.rightmeprove.airbnb.airBnbApp.entity.Hotel;
-import com.rightmeprove.airbnb.airBnbApp.entity.Room;
-import com.rightmeprove.airbnb.airBnbApp.entity.User;
 import com.rightmeprove.airbnb.airBnbApp.entity.enums.BookingStatus;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -13,6 +10,7 @@ import java.time.LocalDateTime;
 import java.util.Set;
 
 @Data
+@NoArgsConstructor
 public class BookingDto {
     private Long id;
     private Integer roomsCount;
@@ -24,4 +22,17 @@ public class BookingDto {
     private Set<GuestDto> guests;
     private BigDecimal amount;
 
+    // Used by JPQL constructor projections; guests are attached separately
+    public BookingDto(Long id, Integer roomsCount, LocalDate checkInDate, LocalDate checkOutDate,
+                      LocalDateTime createdAt, LocalDateTime updatedAt,
+                      BookingStatus bookingStatus, BigDecimal amount) {
+        this.id = id;
+        this.roomsCount = roomsCount;
+        this.checkInDate = checkInDate;
+        this.checkOutDate = checkOutDate;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        this.bookingStatus = bookingStatus;
+        this.amount = amount;
+    }
 }
@@ -0,0 +1,20 @@
+package com.rightmeprove.airbnb.airBnbApp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of bookings (keyset pagination, newest first).
+ * Pass nextCursor as the cursor parameter to get the following page.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BookingPageDto {
+    private List<BookingDto> content; // Ordered by creation time, then booking ID, newest first
+
+    private String nextCursor;        // Opaque cursor of the next page; null on the last page
+}
@@ -0,0 +1,10 @@
+package com.rightmeprove.airbnb.airBnbApp.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BulkInventoryUpdateRequestDto {
+    private List<InventoryPatchDto> patches;
+}
@@ -0,0 +1,22 @@
+package com.rightmeprove.airbnb.airBnbApp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * One day of a hotel's price calendar.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CalendarDayDto {
+    private LocalDate date;
+
+    private BigDecimal minPrice;    // Lowest nightly price across room types; null when not priced
+
+    private Integer availableRooms; // Rooms still bookable across room types (closed days count as 0)
+}
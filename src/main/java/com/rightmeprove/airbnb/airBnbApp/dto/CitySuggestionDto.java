@@ -0,0 +1,17 @@
+package com.rightmeprove.airbnb.airBnbApp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One city autocomplete suggestion.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CitySuggestionDto {
+    private String city;          // City name as shown to users
+
+    private Integer activeHotels; // Number of active hotels (suggestions are ranked by it)
+}
@@ -0,0 +1,34 @@
+package com.rightmeprove.airbnb.airBnbApp.dto;
+
+import lombok.Data;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+
+/**
+ * Flexible-date search criteria, bound from query parameters:
+ * GET /hotels/search/flexible?city=Goa&startDate=2025-11-01&endDate=2025-11-30&nights=3&roomsCount=1&limit=10
+ * → the cheapest 3-night stays checking in on or after startDate and checking out by endDate.
+ */
+@Data
+public class FlexibleSearchRequestDto {
+    private String city;
+    // City where user wants to stay
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate startDate;
+    // Earliest check-in date (yyyy-MM-dd)
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate endDate;
+    // Latest check-out date (yyyy-MM-dd)
+
+    private Integer nights;
+    // Length of the stay in nights
+
+    private Integer roomsCount = 1;
+    // Number of rooms required every night of the stay
+
+    private Integer limit = 10;
+    // Number of stays to return (cheapest first)
+}
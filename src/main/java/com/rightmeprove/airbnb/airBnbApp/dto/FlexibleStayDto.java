@@ -0,0 +1,27 @@
+package com.rightmeprove.airbnb.airBnbApp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * One result of a flexible-date search: the cheapest stay window found for a hotel,
+ * in a single room type that is available every night of it.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class FlexibleStayDto {
+    private HotelDto hotel;         // Hotel details (DTO, no owner data)
+
+    private Long roomId;            // Room to book the whole stay in
+
+    private LocalDate checkInDate;  // First night of the cheapest window
+
+    private LocalDate checkOutDate; // Day after the last night
+
+    private BigDecimal totalPrice;  // Sum of the room's nightly prices over the window, for roomsCount rooms
+}
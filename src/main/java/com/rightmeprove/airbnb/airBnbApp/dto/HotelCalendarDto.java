@@ -0,0 +1,19 @@
+package com.rightmeprove.airbnb.airBnbApp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Nightly prices and availability of a hotel over a date range (one entry per day).
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class HotelCalendarDto {
+    private Long hotelId;
+
+    private List<CalendarDayDto> days;
+}
@@ -0,0 +1,32 @@
+package com.rightmeprove.airbnb.airBnbApp.dto;
+
+import com.rightmeprove.airbnb.airBnbApp.entity.enums.HotelDeletionStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Status and progress of a background hotel deletion.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class HotelDeletionJobDto {
+    private Long id;
+    private Long hotelId;
+    private HotelDeletionStatus status;
+
+    // Rows deleted (bookings: archived) so far
+    private Long minPricesDeleted;
+    private Long inventoryDeleted;
+    private Long bookingsArchived;
+    private Long roomsDeleted;
+
+    private String error;               // Why the last run failed; null otherwise
+
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private LocalDateTime completedAt;  // Null until the hotel is gone
+}
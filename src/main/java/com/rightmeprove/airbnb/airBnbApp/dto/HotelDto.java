@@ -1,9 +1,13 @@
 package com.rightmeprove.airbnb.airBnbApp.dto;
 
 import com.rightmeprove.airbnb.airBnbApp.entity.HotelContactInfo;
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 @Data
+@NoArgsConstructor
+@AllArgsConstructor // Used by JPQL constructor projections
 public class HotelDto {
     private Long id;
     private String name;
@@ -0,0 +1,23 @@
+package com.rightmeprove.airbnb.airBnbApp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * Facet counts for the hotel search UI: how many active hotels match the current
+ * city/amenity selection, and how many of those offer each amenity / are in each city.
+ * Both maps are ordered by count (highest first); zero counts are left out.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class HotelFacetsDto {
+    private Long totalHotels;             // Active hotels matching the selection
+
+    private Map<String, Long> amenities;  // Amenity -> matching hotels that offer it
+
+    private Map<String, Long> cities;     // City -> matching hotels in that city
+}
@@ -1,8 +1,10 @@
 package com.rightmeprove.airbnb.airBnbApp.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Data
@@ -10,4 +12,7 @@ import java.util.List;
 public class HotelInfoDto {
     private HotelDto hotel;
     private List<RoomDto> rooms;
+
+    @JsonIgnore // Latest updatedAt of the hotel and its rooms: versions the cached page (HotelInfoCache)
+    private LocalDateTime lastModified;
 }
@@ -1,6 +1,5 @@
 package com.rightmeprove.airbnb.airBnbApp.dto;
 
-import com.rightmeprove.airbnb.airBnbApp.entity.Hotel;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -9,6 +8,6 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 @NoArgsConstructor
 public class HotelPriceDto {
-    private Hotel hotel;
-    private Double price;
+    private HotelDto hotel; // DTO, not the entity: search is public and must not expose the owner
+    private Double price;   // Average nightly min price over the searched dates
 }
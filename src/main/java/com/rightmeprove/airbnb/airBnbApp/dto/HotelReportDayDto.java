@@ -0,0 +1,28 @@
+package com.rightmeprove.airbnb.airBnbApp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * One day of a hotel report: bookings created that day, and rooms occupied that day.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class HotelReportDayDto {
+    private LocalDate date;
+
+    private Long bookingCount;       // Confirmed bookings
+    private BigDecimal totalRevenue; // Revenue of confirmed bookings
+    private Long cancelledCount;     // Cancelled bookings
+
+    private Long roomNightsSold;
+    private Long roomNightsAvailable;
+    private BigDecimal occupancy;
+    private BigDecimal adr;
+    private BigDecimal revPar;
+}
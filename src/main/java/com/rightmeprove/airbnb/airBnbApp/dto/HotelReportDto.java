@@ -5,7 +5,13 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
+import java.util.List;
 
+/**
+ * Hotel report for a date window.
+ * Booking counts and revenue cover bookings created in the window; room-nights, occupancy,
+ * ADR and RevPAR cover the days of the window the guests stay.
+ */
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
@@ -13,5 +19,14 @@ public class HotelReportDto {
     private Long bookingCount;
     private BigDecimal totalRevenue;
     private BigDecimal avgRevenue;
-}
 
+    private Long cancelledCount;            // Bookings cancelled after confirmation
+
+    private Long roomNightsSold;
+    private Long roomNightsAvailable;
+    private BigDecimal occupancy;           // roomNightsSold / roomNightsAvailable (0-1)
+    private BigDecimal adr;                 // Average daily rate: room revenue / roomNightsSold
+    private BigDecimal revPar;              // Revenue per available room: room revenue / roomNightsAvailable
+
+    private List<HotelReportDayDto> days;   // One entry per day of the window, oldest first
+}
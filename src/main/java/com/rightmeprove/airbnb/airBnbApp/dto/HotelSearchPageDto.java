@@ -0,0 +1,22 @@
+package com.rightmeprove.airbnb.airBnbApp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of hotel search results (keyset pagination).
+ * Pass nextCursor as the cursor parameter to get the following page.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class HotelSearchPageDto {
+    private List<HotelPriceDto> content; // Ordered by price, then hotel ID
+
+    private String nextCursor;           // Opaque cursor of the next page; null on the last page
+
+    private Long totalElements;          // Total matching hotels; only filled when includeCount=true
+}
@@ -1,26 +1,74 @@
 package com.rightmeprove.airbnb.airBnbApp.dto;
 
 import lombok.Data;
+import org.springframework.format.annotation.DateTimeFormat;
 
 import java.time.LocalDate;
+import java.util.List;
 
+/**
+ * Search criteria, bound from query parameters:
+ * GET /hotels/search?city=Delhi&startDate=2025-09-14&endDate=2025-09-15&roomsCount=1&size=10
+ * Optional filters: amenities=WiFi&amenities=Pool, roomAmenities=AC, minCapacity=3, minPrice=1000&maxPrice=5000
+ */
 @Data
 public class HotelSearchRequestDto {
     private String city;
     // City where user wants to search hotels
 
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
     private LocalDate startDate;
-    // Check-in date
+    // Check-in date (yyyy-MM-dd)
 
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
     private LocalDate endDate;
-    // Check-out date
+    // Check-out date (yyyy-MM-dd)
 
-    private Integer roomsCount;
+    private Integer roomsCount = 1;
     // Number of rooms required
 
-    private Integer page = 0;
-    // Pagination: page number (default = 0 → first page)
+    private List<String> amenities;
+    // Hotel must offer all of these amenities
+
+    private List<String> roomAmenities;
+    // At least one room must offer all of these amenities (together with minCapacity)
+
+    private Integer minCapacity;
+    // At least one room must accommodate this many guests
+
+    private Double minPrice;
+    // Lower bound of the average nightly price (inclusive)
+
+    private Double maxPrice;
+    // Upper bound of the average nightly price (inclusive)
+
+    private String cursor;
+    // Pagination: nextCursor of the previous page (absent → first page)
 
     private Integer size = 10;
     // Pagination: number of results per page (default = 10)
+
+    private Boolean includeCount = false;
+    // Also return totalElements (costs an extra count query, so off by default)
+
+    /**
+     * Canonical form of the criteria: parameters sorted by name, values already normalised
+     * (amenity lists trimmed, de-duplicated and sorted; see InventoryService.normalizeSearchRequest).
+     * Equal searches always produce the same key, whatever the parameter order or city casing
+     * in the original URL.
+     */
+    public String toCacheKey() {
+        return "amenities=" + amenities
+                + "&city=" + city
+                + "&cursor=" + cursor
+                + "&endDate=" + endDate
+                + "&includeCount=" + includeCount
+                + "&maxPrice=" + maxPrice
+                + "&minCapacity=" + minCapacity
+                + "&minPrice=" + minPrice
+                + "&roomAmenities=" + roomAmenities
+                + "&roomsCount=" + roomsCount
+                + "&size=" + size
+                + "&startDate=" + startDate;
+    }
 }
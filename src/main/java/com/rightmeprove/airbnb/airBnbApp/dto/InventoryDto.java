@@ -1,14 +1,14 @@
 package com.rightmeprove.airbnb.airBnbApp.dto;
 
 import lombok.Data;
-import org.hibernate.annotations.CreationTimestamp;
-import org.hibernate.annotations.UpdateTimestamp;
+import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Data
+@NoArgsConstructor
 public class InventoryDto {
     private Long id;
     private LocalDate date;
@@ -20,4 +20,20 @@ public class InventoryDto {
     private Boolean closed;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+
+    // Used by JPQL constructor projections (Inventory.updatedAt is stored as a LocalDate)
+    public InventoryDto(Long id, LocalDate date, int bookedCount, Integer reservedCount, Integer totalCount,
+                        BigDecimal surgeFactor, BigDecimal price, Boolean closed,
+                        LocalDateTime createdAt, LocalDate updatedAt) {
+        this.id = id;
+        this.date = date;
+        this.bookedCount = bookedCount;
+        this.reservedCount = reservedCount;
+        this.totalCount = totalCount;
+        this.surgeFactor = surgeFactor;
+        this.price = price;
+        this.closed = closed;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt == null ? null : updatedAt.atStartOfDay();
+    }
 }
@@ -0,0 +1,19 @@
+package com.rightmeprove.airbnb.airBnbApp.dto;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * One change of a bulk inventory update: a room, a date range (inclusive) and the new values.
+ * A null surgeFactor or closed leaves that field unchanged.
+ */
+@Data
+public class InventoryPatchDto {
+    private Long roomId;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private BigDecimal surgeFactor;
+    private Boolean closed;
+}
@@ -0,0 +1,23 @@
+package com.rightmeprove.airbnb.airBnbApp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of one patch of a bulk inventory update, in request order.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class InventoryPatchResultDto {
+    private Integer index;          // Position of the patch in the request
+
+    private Long roomId;
+
+    private Boolean applied;
+
+    private Integer updatedDays;    // Inventory days the patch updated (0 when not applied)
+
+    private String error;           // Why the patch was rejected; null when applied
+}
@@ -0,0 +1,35 @@
+package com.rightmeprove.airbnb.airBnbApp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Compact (columnar) inventory of one room over a date range.
+ * Every array has one slot per day: index i is startDate + i. Days without an inventory row are null.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class InventoryRangeDto {
+    private Long roomId;
+
+    private LocalDate startDate;
+
+    private LocalDate endDate;          // Inclusive
+
+    private BigDecimal[] price;
+
+    private BigDecimal[] surgeFactor;
+
+    private Integer[] bookedCount;
+
+    private Integer[] reservedCount;
+
+    private Integer[] totalCount;
+
+    private Boolean[] closed;
+}
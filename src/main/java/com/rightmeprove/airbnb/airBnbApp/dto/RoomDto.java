@@ -1,10 +1,14 @@
 package com.rightmeprove.airbnb.airBnbApp.dto;
 
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
 
 @Data
+@NoArgsConstructor
+@AllArgsConstructor // Used by JPQL constructor projections
 public class RoomDto {
     private Long id;
     private String type;
@@ -17,6 +17,14 @@ import java.util.Set;
 @Builder
 @AllArgsConstructor
 @NoArgsConstructor
+@Table(indexes = {
+        // Bookings of a hotel, by creation time (hotel booking pages, export, daily stats backfill)
+        @Index(name = "idx_booking_hotel_created_at", columnList = "hotel_id, created_at"),
+        // Bookings of a user, by creation time ("my bookings" pages)
+        @Index(name = "idx_booking_user_created_at", columnList = "user_id, created_at"),
+        // Room foreign key check when rooms are deleted (otherwise a scan of all bookings per room)
+        @Index(name = "idx_booking_room_id", columnList = "room_id")
+})
 public class Booking {
 
     @Id
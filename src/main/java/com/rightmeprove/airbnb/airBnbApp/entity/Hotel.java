@@ -4,6 +4,8 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -14,6 +16,7 @@ import java.util.List;
 @Getter
 @Setter
 @Table(name = "hotel") // Maps entity to "hotel" table
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE) // Reference data: cached in the second-level cache
 public class Hotel {
 
     @Id
@@ -52,6 +55,12 @@ public class Hotel {
      * Lazy loading prevents loading all rooms unless accessed.
      */
     @JsonIgnore // Prevent infinite recursion during JSON serialization
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+    /*
+     * The collection cache only stores room IDs (rooms themselves come from the Room region).
+     * Hibernate does not update it when a Room is inserted/deleted through the owning side,
+     * so HotelCacheEvictor evicts it explicitly on room changes.
+     */
     private List<Room> rooms;
 
     @ManyToOne(optional = false)
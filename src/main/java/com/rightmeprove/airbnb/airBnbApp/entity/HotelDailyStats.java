@@ -0,0 +1,70 @@
+package com.rightmeprove.airbnb.airBnbApp.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Pre-aggregated hotel figures for one day (rollup behind the hotel reports).
+ *
+ * Two kinds of figures share a row:
+ * - Bookings: confirmed/cancelled bookings and revenue, counted on the day the booking was
+ *   created (the date the reports filter on).
+ * - Stays: room-nights sold and their share of the revenue, counted on every day of the stay,
+ *   next to the room-nights the hotel offered that day (occupancy, ADR, RevPAR).
+ *
+ * Maintained by HotelStatsService: incremental upserts on confirmation/cancellation,
+ * rebuilt per hotel by a nightly backfill.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@Table(uniqueConstraints = @UniqueConstraint(
+        // One row per hotel and day; also the conflict target of the upserts
+        name = "uk_hotel_daily_stats_hotel_date",
+        columnNames = {"hotel_id", "date"}
+))
+public class HotelDailyStats {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Primary key, auto-incremented
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "hotel_id", nullable = false)
+    // Many daily rows belong to one hotel
+    private Hotel hotel;
+
+    @Column(nullable = false)
+    private LocalDate date;
+
+    @Column(nullable = false)
+    // Bookings created on this day that are confirmed
+    private Integer confirmedBookings;
+
+    @Column(nullable = false, precision = 12, scale = 2)
+    // Amount of those confirmed bookings
+    private BigDecimal revenue;
+
+    @Column(nullable = false)
+    // Bookings created on this day that were cancelled
+    private Integer cancelledBookings;
+
+    @Column(nullable = false)
+    // Rooms of confirmed bookings staying on this day
+    private Integer roomNightsSold;
+
+    @Column(nullable = false, precision = 12, scale = 2)
+    // Share of the booking amounts earned on this day (amount / days of the stay)
+    private BigDecimal roomRevenue;
+
+    @Column(nullable = false)
+    // Rooms offered on this day (inventory total, closed days count as 0)
+    private Integer roomNightsAvailable;
+}
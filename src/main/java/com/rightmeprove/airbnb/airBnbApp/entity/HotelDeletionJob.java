@@ -0,0 +1,76 @@
+package com.rightmeprove.airbnb.airBnbApp.entity;
+
+import com.rightmeprove.airbnb.airBnbApp.entity.enums.HotelDeletionStatus;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress of the background deletion of one hotel (HotelDeletionService).
+ *
+ * The hotel is referenced by ID only, without a foreign key: the job outlives the hotel row
+ * and stays readable once the deletion is complete.
+ * The counters are updated in the same transaction as each deleted batch.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@Table(indexes = {
+        // Latest job of a hotel (progress endpoint, "being deleted" checks)
+        @Index(name = "idx_hotel_deletion_job_hotel_id", columnList = "hotel_id")
+})
+public class HotelDeletionJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Primary key, auto-incremented
+    private Long id;
+
+    @Column(name = "hotel_id", nullable = false)
+    private Long hotelId;
+
+    @Column(nullable = false)
+    // Owner of the hotel when the deletion was requested (only they can follow it)
+    private Long ownerId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private HotelDeletionStatus status;
+
+    @Column(nullable = false)
+    private long minPricesDeleted;
+
+    @Column(nullable = false)
+    private long inventoryDeleted;
+
+    @Column(nullable = false)
+    // Bookings are moved to the archive schema rather than deleted (payment history)
+    private long bookingsArchived;
+
+    @Column(nullable = false)
+    private long roomsDeleted;
+
+    @Column(length = 1000)
+    // Error of the last failed run, null otherwise
+    private String error;
+
+    @CreationTimestamp
+    private LocalDateTime createdAt;
+
+    @UpdateTimestamp
+    private LocalDateTime updatedAt;
+
+    private LocalDateTime completedAt;
+
+    public HotelDeletionJob(Long hotelId, Long ownerId) {
+        this.hotelId = hotelId;
+        this.ownerId = ownerId;
+        this.status = HotelDeletionStatus.PENDING;
+    }
+}
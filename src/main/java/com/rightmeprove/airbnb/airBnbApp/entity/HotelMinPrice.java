@@ -5,6 +5,7 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.PartitionKey;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.math.BigDecimal;
@@ -15,6 +16,15 @@ import java.time.LocalDateTime;
 @Getter
 @Setter
 @NoArgsConstructor
+@Table(uniqueConstraints = @UniqueConstraint(
+        // One row per hotel and day: per-hotel date range lookups (search joins) and the conflict target
+        // of the pricing upsert (holds the partition column, as unique keys of a partitioned table must)
+        name = "uk_hotel_min_price_hotel_date",
+        columnNames = {"hotel_id", "date"}
+), indexes = {
+        // Price-band filtering / ordering of search results
+        @Index(name = "idx_hotel_min_price_price", columnList = "price")
+})
 public class HotelMinPrice {
 
     @Id
@@ -28,7 +38,8 @@ public class HotelMinPrice {
     private Hotel hotel;
 
     @Column(nullable = false)
-    // Date for which this minimum price applies
+    @PartitionKey
+    // Date for which this minimum price applies; monthly partition column (see Inventory.date)
     private LocalDate date;
 
     @Column(nullable = false, precision = 10, scale = 2)
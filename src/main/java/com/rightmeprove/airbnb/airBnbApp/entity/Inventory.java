@@ -3,6 +3,7 @@ package com.rightmeprove.airbnb.airBnbApp.entity;
 import jakarta.persistence.*;          // JPA annotations
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp; // Auto-set creation timestamp
+import org.hibernate.annotations.PartitionKey;      // Partition column of the monthly partitions
 import org.hibernate.annotations.UpdateTimestamp;   // Auto-update timestamp
 
 import java.math.BigDecimal;          // For exact money/decimal calculations
@@ -21,7 +22,13 @@ import java.time.LocalDateTime;       // For timestamps
          * Ensures there cannot be two rows with the same (hotel_id, room_id, date).
          * Example: Hotel X, Room Y, Date Z → only one entry allowed.
          * Prevents duplicate inventory records for the same room on the same date.
-         */
+         * It contains the partition column (date), as every unique constraint of a partitioned table must.
+         */,
+        indexes = {
+                // Room-keyed lookups without the hotel (booking updates over a stay) and the
+                // room foreign key check when rooms are deleted
+                @Index(name = "idx_inventory_room_date", columnList = "room_id, date")
+        }
 )
 @NoArgsConstructor
 @AllArgsConstructor
@@ -63,7 +70,13 @@ public class Inventory {
     private Room room;
 
     @Column(nullable = false)
-    // Date of availability (inventory is tracked per day)
+    @PartitionKey
+    /*
+     * Date of availability (inventory is tracked per day).
+     * The table is range-partitioned by month on this column (InventoryPartitionService):
+     * @PartitionKey adds it to the WHERE clause of entity UPDATE/DELETE statements,
+     * so they touch one partition instead of probing every partition's primary key (id, date).
+     */
     private LocalDate date;
 
     @Column(nullable = false, columnDefinition = "INTEGER DEFAULT 0")
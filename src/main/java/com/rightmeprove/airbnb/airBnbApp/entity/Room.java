@@ -4,6 +4,8 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;          // JPA annotations for ORM mapping
 import lombok.Getter;                 // Lombok generates getter methods
 import lombok.Setter;                 // Lombok generates setter methods
+import org.hibernate.annotations.Cache;            // Second-level cache region
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp; // Auto-set creation time
 import org.hibernate.annotations.UpdateTimestamp;   // Auto-set update time
 
@@ -13,6 +15,12 @@ import java.time.LocalDateTime;       // Timestamp class
 @Entity
 @Getter
 @Setter
+@Table(indexes = {
+        // Rooms of a hotel (PostgreSQL does not index foreign keys on its own)
+        @Index(name = "idx_room_hotel_id", columnList = "hotel_id")
+})
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+// Rooms change rarely but are read on almost every request -> kept in the second-level cache
 public class Room {
 
     @Id
@@ -0,0 +1,11 @@
+package com.rightmeprove.airbnb.airBnbApp.entity.enums;
+
+/**
+ * Enum representing the stages of a background hotel deletion.
+ */
+public enum HotelDeletionStatus {
+    PENDING,    // Hotel deactivated, deletion queued
+    RUNNING,    // Rows are being deleted in batches
+    COMPLETED,  // Hotel and all its rows are gone
+    FAILED      // Stopped on an error; deleting the hotel again resumes it
+}
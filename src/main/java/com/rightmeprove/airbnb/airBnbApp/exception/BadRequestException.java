@@ -0,0 +1,14 @@
+package com.rightmeprove.airbnb.airBnbApp.exception;
+
+/**
+ * Custom exception thrown when request parameters are missing or invalid
+ * (e.g., a search whose check-out date is before its check-in date).
+ * Extends RuntimeException → unchecked exception.
+ * Will be handled globally by GlobalExceptionHandler to return 400 responses.
+ */
+public class BadRequestException extends RuntimeException {
+
+    public BadRequestException(String message){
+        super(message); // Passes custom error message to the exception
+    }
+}
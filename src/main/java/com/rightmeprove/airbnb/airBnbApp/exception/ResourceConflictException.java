@@ -0,0 +1,14 @@
+package com.rightmeprove.airbnb.airBnbApp.exception;
+
+/**
+ * Custom exception thrown when a request conflicts with the current state of a resource
+ * (e.g., signing up with an email that is already registered).
+ * Extends RuntimeException → unchecked exception.
+ * Will be handled globally by GlobalExceptionHandler to return 409 responses.
+ */
+public class ResourceConflictException extends RuntimeException {
+
+    public ResourceConflictException(String message){
+        super(message); // Passes custom error message to the exception
+    }
+}
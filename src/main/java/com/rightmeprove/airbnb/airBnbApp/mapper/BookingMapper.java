@@ -0,0 +1,50 @@
+package com.rightmeprove.airbnb.airBnbApp.mapper;
+
+import com.rightmeprove.airbnb.airBnbApp.dto.BookingDto;
+import com.rightmeprove.airbnb.airBnbApp.dto.GuestDto;
+import com.rightmeprove.airbnb.airBnbApp.entity.Booking;
+import com.rightmeprove.airbnb.airBnbApp.entity.Guest;
+import org.springframework.stereotype.Component;
+
+import java.util.stream.Collectors;
+
+/**
+ * Hand-written Booking → BookingDto mapper (including the guest set).
+ */
+@Component
+public class BookingMapper {
+
+    /**
+     * Map a Booking entity to its DTO.
+     */
+    public BookingDto toDto(Booking booking) {
+        BookingDto bookingDto = new BookingDto();
+        bookingDto.setId(booking.getId());
+        bookingDto.setRoomsCount(booking.getRoomsCount());
+        bookingDto.setCheckInDate(booking.getCheckInDate());
+        bookingDto.setCheckOutDate(booking.getCheckOutDate());
+        bookingDto.setCreatedAt(booking.getCreatedAt());
+        bookingDto.setUpdatedAt(booking.getUpdatedAt());
+        bookingDto.setBookingStatus(booking.getBookingStatus());
+        bookingDto.setAmount(booking.getAmount());
+        if (booking.getGuests() != null) {
+            bookingDto.setGuests(booking.getGuests().stream()
+                    .map(this::toGuestDto)
+                    .collect(Collectors.toSet()));
+        }
+        return bookingDto;
+    }
+
+    /**
+     * Map a Guest entity to its DTO.
+     */
+    public GuestDto toGuestDto(Guest guest) {
+        GuestDto guestDto = new GuestDto();
+        guestDto.setId(guest.getId());
+        guestDto.setUser(guest.getUser());
+        guestDto.setName(guest.getName());
+        guestDto.setGender(guest.getGender());
+        guestDto.setAge(guest.getAge());
+        return guestDto;
+    }
+}
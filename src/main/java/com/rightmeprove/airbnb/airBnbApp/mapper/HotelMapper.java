@@ -0,0 +1,54 @@
+package com.rightmeprove.airbnb.airBnbApp.mapper;
+
+import com.rightmeprove.airbnb.airBnbApp.dto.HotelDto;
+import com.rightmeprove.airbnb.airBnbApp.entity.Hotel;
+import org.springframework.stereotype.Component;
+
+/**
+ * Hand-written Hotel ↔ HotelDto mapper.
+ *
+ * Replaces reflective ModelMapper calls on the hotel read/write paths:
+ * plain getter/setter calls, no type-map lookup or property matching per call.
+ */
+@Component
+public class HotelMapper {
+
+    /**
+     * Map a Hotel entity to its DTO.
+     */
+    public HotelDto toDto(Hotel hotel) {
+        HotelDto hotelDto = new HotelDto();
+        hotelDto.setId(hotel.getId());
+        hotelDto.setName(hotel.getName());
+        hotelDto.setCity(hotel.getCity());
+        hotelDto.setPhotos(hotel.getPhotos());
+        hotelDto.setAmenities(hotel.getAmenities());
+        hotelDto.setContactInfo(hotel.getContactInfo());
+        hotelDto.setActive(hotel.getActive());
+        return hotelDto;
+    }
+
+    /**
+     * Create a new (unsaved) Hotel entity from a DTO.
+     * - ID is left empty so the database assigns it.
+     */
+    public Hotel toEntity(HotelDto hotelDto) {
+        Hotel hotel = new Hotel();
+        updateEntity(hotelDto, hotel);
+        hotel.setActive(hotelDto.getActive());
+        return hotel;
+    }
+
+    /**
+     * Copy editable DTO fields onto an existing Hotel.
+     * - ID and active flag are not copied: identity is fixed and
+     *   activation goes through activateHotel (which seeds inventory).
+     */
+    public void updateEntity(HotelDto hotelDto, Hotel hotel) {
+        hotel.setName(hotelDto.getName());
+        hotel.setCity(hotelDto.getCity());
+        hotel.setPhotos(hotelDto.getPhotos());
+        hotel.setAmenities(hotelDto.getAmenities());
+        hotel.setContactInfo(hotelDto.getContactInfo());
+    }
+}
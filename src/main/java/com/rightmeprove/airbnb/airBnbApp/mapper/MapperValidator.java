@@ -0,0 +1,124 @@
+package com.rightmeprove.airbnb.airBnbApp.mapper;
+
+import com.rightmeprove.airbnb.airBnbApp.dto.BookingDto;
+import com.rightmeprove.airbnb.airBnbApp.entity.*;
+import com.rightmeprove.airbnb.airBnbApp.entity.enums.BookingStatus;
+import com.rightmeprove.airbnb.airBnbApp.entity.enums.Gender;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Set;
+
+/**
+ * Startup check for the hand-written mappers.
+ *
+ * Maps fully-populated sample entities and fails application startup if any DTO field
+ * is left null, so a field added to a DTO (or entity) without updating its mapper
+ * is caught at boot instead of silently disappearing from API responses.
+ * Reflection is used only here, once, never on the request path.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class MapperValidator {
+
+    private final HotelMapper hotelMapper;
+    private final RoomMapper roomMapper;
+    private final BookingMapper bookingMapper;
+
+    @PostConstruct
+    public void validate() {
+        Hotel hotel = sampleHotel();
+        Room room = sampleRoom(hotel);
+
+        // Entity → DTO (read paths)
+        assertAllFieldsMapped(hotelMapper.toDto(hotel));
+        assertAllFieldsMapped(roomMapper.toDto(room));
+
+        BookingDto bookingDto = bookingMapper.toDto(sampleBooking(hotel, room));
+        assertAllFieldsMapped(bookingDto);
+        assertAllFieldsMapped(bookingDto.getGuests().iterator().next());
+
+        // DTO → entity → DTO (write paths); ID is assigned by the database, not copied
+        assertAllFieldsMapped(hotelMapper.toDto(hotelMapper.toEntity(hotelMapper.toDto(hotel))), "id");
+        assertAllFieldsMapped(roomMapper.toDto(roomMapper.toEntity(roomMapper.toDto(room))), "id");
+
+        log.info("Validated Hotel, Room and Booking DTO mappers");
+    }
+
+    /** Helper: throw if any instance field of the DTO (other than ignored ones) is null */
+    private void assertAllFieldsMapped(Object dto, String... ignoredFields) {
+        Set<String> ignored = Set.of(ignoredFields);
+        for (Field field : dto.getClass().getDeclaredFields()) {
+            if (Modifier.isStatic(field.getModifiers()) || ignored.contains(field.getName())) continue;
+            try {
+                field.setAccessible(true);
+                if (field.get(dto) == null) {
+                    throw new IllegalStateException("Mapper for " + dto.getClass().getSimpleName()
+                            + " does not populate field: " + field.getName());
+                }
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    private Hotel sampleHotel() {
+        Hotel hotel = new Hotel();
+        hotel.setId(1L);
+        hotel.setName("Sample Hotel");
+        hotel.setCity("Sample City");
+        hotel.setPhotos(new String[]{"photo.jpg"});
+        hotel.setAmenities(new String[]{"WiFi"});
+        hotel.setContactInfo(new HotelContactInfo());
+        hotel.setActive(true);
+        return hotel;
+    }
+
+    private Room sampleRoom(Hotel hotel) {
+        Room room = new Room();
+        room.setId(1L);
+        room.setHotel(hotel);
+        room.setType("Deluxe");
+        room.setBasePrice(BigDecimal.TEN);
+        room.setPhotos(new String[]{"photo.jpg"});
+        room.setAmenities(new String[]{"AC"});
+        room.setTotalCount(1);
+        room.setCapacity(2);
+        return room;
+    }
+
+    private Booking sampleBooking(Hotel hotel, Room room) {
+        User user = new User();
+        user.setId(1L);
+
+        Guest guest = new Guest();
+        guest.setId(1L);
+        guest.setUser(user);
+        guest.setName("Sample Guest");
+        guest.setGender(Gender.OTHER);
+        guest.setAge(30);
+
+        return Booking.builder()
+                .id(1L)
+                .hotel(hotel)
+                .room(room)
+                .user(user)
+                .roomsCount(1)
+                .checkInDate(LocalDate.now())
+                .checkOutDate(LocalDate.now().plusDays(1))
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .bookingStatus(BookingStatus.CONFIRMED)
+                .guests(Set.of(guest))
+                .amount(BigDecimal.TEN)
+                .build();
+    }
+}
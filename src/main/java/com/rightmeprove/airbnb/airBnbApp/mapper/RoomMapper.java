@@ -0,0 +1,49 @@
+package com.rightmeprove.airbnb.airBnbApp.mapper;
+
+import com.rightmeprove.airbnb.airBnbApp.dto.RoomDto;
+import com.rightmeprove.airbnb.airBnbApp.entity.Room;
+import org.springframework.stereotype.Component;
+
+/**
+ * Hand-written Room ↔ RoomDto mapper.
+ */
+@Component
+public class RoomMapper {
+
+    /**
+     * Map a Room entity to its DTO.
+     */
+    public RoomDto toDto(Room room) {
+        RoomDto roomDto = new RoomDto();
+        roomDto.setId(room.getId());
+        roomDto.setType(room.getType());
+        roomDto.setBasePrice(room.getBasePrice());
+        roomDto.setPhotos(room.getPhotos());
+        roomDto.setAmenities(room.getAmenities());
+        roomDto.setTotalCount(room.getTotalCount());
+        roomDto.setCapacity(room.getCapacity());
+        return roomDto;
+    }
+
+    /**
+     * Create a new (unsaved) Room entity from a DTO.
+     * - Hotel relationship is set by the caller.
+     */
+    public Room toEntity(RoomDto roomDto) {
+        Room room = new Room();
+        updateEntity(roomDto, room);
+        return room;
+    }
+
+    /**
+     * Copy editable DTO fields onto an existing Room (ID and hotel are kept).
+     */
+    public void updateEntity(RoomDto roomDto, Room room) {
+        room.setType(roomDto.getType());
+        room.setBasePrice(roomDto.getBasePrice());
+        room.setPhotos(roomDto.getPhotos());
+        room.setAmenities(roomDto.getAmenities());
+        room.setTotalCount(roomDto.getTotalCount());
+        room.setCapacity(roomDto.getCapacity());
+    }
+}
@@ -1,13 +1,27 @@
 package com.rightmeprove.airbnb.airBnbApp.repository;
 
+import com.rightmeprove.airbnb.airBnbApp.dto.BookingDto;
 import com.rightmeprove.airbnb.airBnbApp.entity.Booking;
-import com.rightmeprove.airbnb.airBnbApp.entity.Hotel;
-import com.rightmeprove.airbnb.airBnbApp.entity.User;
+import com.rightmeprove.airbnb.airBnbApp.entity.Guest;
+import com.rightmeprove.airbnb.airBnbApp.entity.enums.BookingStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for Booking entity.
@@ -15,15 +29,183 @@ import java.util.Optional;
  */
 public interface BookingRepository extends JpaRepository<Booking, Long> {
 
-    // Find a booking by its Stripe payment session ID
-    Optional<Booking> findByPaymentSessionId(String sessionId);
+    // Find a booking with its guests loaded (used when adding guests)
+    @EntityGraph(attributePaths = "guests")
+    Optional<Booking> findWithGuestsById(Long id);
 
-    // Find all bookings for a specific hotel
-    List<Booking> findByHotel(Hotel hotel);
+    // Find a booking with hotel and room loaded (used to build the checkout line item)
+    @EntityGraph(attributePaths = {"hotel", "room"})
+    Optional<Booking> findWithHotelAndRoomById(Long id);
 
-    // Find all bookings for a hotel created within a specific datetime range
-    List<Booking> findByHotelAndCreatedAtBetween(Hotel hotel, LocalDateTime startDateTime, LocalDateTime endDateTime);
+    // Find and lock a booking by its Stripe payment session ID (concurrent deliveries of the same event queue up)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<Booking> findAndLockByPaymentSessionId(String sessionId);
 
-    // Find all bookings made by a specific user
-    List<Booking> findByUser(User user);
+    /**
+     * One page of a hotel's bookings, newest first, as BookingDto projections (no entities hydrated).
+     * Keyset pagination on (createdAt, id): the page starts after the last booking of the previous page
+     * (afterCreatedAt/afterId, both null for the first page), walking idx_booking_hotel_created_at.
+     * Only bookings with one of the given statuses (pass all statuses for no filter).
+     * Guests are loaded separately with findGuestsByBookingIds.
+     */
+    @Query("""
+            SELECT new com.rightmeprove.airbnb.airBnbApp.dto.BookingDto(
+                b.id, b.roomsCount, b.checkInDate, b.checkOutDate,
+                b.createdAt, b.updatedAt, b.bookingStatus, b.amount)
+            FROM Booking b
+            WHERE b.hotel.id = :hotelId
+              AND b.bookingStatus IN :statuses
+              AND (cast(:afterCreatedAt as LocalDateTime) IS NULL
+                   OR (b.createdAt <= :afterCreatedAt
+                       AND (b.createdAt < :afterCreatedAt OR b.id < :afterId)))
+            ORDER BY b.createdAt DESC, b.id DESC
+            """)
+    List<BookingDto> findBookingDtoPageByHotelId(@Param("hotelId") Long hotelId,
+                                                 @Param("statuses") Collection<BookingStatus> statuses,
+                                                 @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+                                                 @Param("afterId") Long afterId,
+                                                 Limit limit);
+
+    /**
+     * One page of a user's bookings, newest first; same keyset and status filter as
+     * findBookingDtoPageByHotelId (idx_booking_user_created_at).
+     */
+    @Query("""
+            SELECT new com.rightmeprove.airbnb.airBnbApp.dto.BookingDto(
+                b.id, b.roomsCount, b.checkInDate, b.checkOutDate,
+                b.createdAt, b.updatedAt, b.bookingStatus, b.amount)
+            FROM Booking b
+            WHERE b.user.id = :userId
+              AND b.bookingStatus IN :statuses
+              AND (cast(:afterCreatedAt as LocalDateTime) IS NULL
+                   OR (b.createdAt <= :afterCreatedAt
+                       AND (b.createdAt < :afterCreatedAt OR b.id < :afterId)))
+            ORDER BY b.createdAt DESC, b.id DESC
+            """)
+    List<BookingDto> findBookingDtoPageByUserId(@Param("userId") Long userId,
+                                                @Param("statuses") Collection<BookingStatus> statuses,
+                                                @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+                                                @Param("afterId") Long afterId,
+                                                Limit limit);
+
+    /**
+     * Bookings of a hotel for the streaming export, oldest first (idx_booking_hotel_created_at),
+     * optionally limited to those created in [from, to) (null = unbounded).
+     * Read through a server-side cursor (fetch size) as unmanaged DTOs, so memory stays flat
+     * however many bookings the hotel has; must be consumed inside a transaction and closed.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("""
+            SELECT new com.rightmeprove.airbnb.airBnbApp.dto.BookingDto(
+                b.id, b.roomsCount, b.checkInDate, b.checkOutDate,
+                b.createdAt, b.updatedAt, b.bookingStatus, b.amount)
+            FROM Booking b
+            WHERE b.hotel.id = :hotelId
+              AND (cast(:from as LocalDateTime) IS NULL OR b.createdAt >= :from)
+              AND (cast(:to as LocalDateTime) IS NULL OR b.createdAt < :to)
+            ORDER BY b.createdAt, b.id
+            """)
+    Stream<BookingDto> streamBookingDtosByHotelId(@Param("hotelId") Long hotelId,
+                                                  @Param("from") LocalDateTime from,
+                                                  @Param("to") LocalDateTime to);
+
+    /**
+     * Guests of the given bookings in one query (instead of one lazy load per booking).
+     * The guest's user and its (eager) roles are fetched in the same query so they
+     * do not trigger one extra select per distinct user.
+     */
+    @Query("""
+            SELECT b.id AS bookingId, g AS guest
+            FROM Booking b
+            JOIN b.guests g
+            LEFT JOIN FETCH g.user u
+            LEFT JOIN FETCH u.roles
+            WHERE b.id IN :bookingIds
+            """)
+    List<BookingGuest> findGuestsByBookingIds(@Param("bookingIds") Collection<Long> bookingIds);
+
+    /**
+     * Whether the hotel has bookings that are still going on (a hotel cannot be deleted under them):
+     * - confirmed bookings whose stay is not over yet
+     * - reserved bookings (with or without guests) created after reservedSince, still within their expiry window
+     * - bookings waiting for payment since after checkoutSince, whose Stripe checkout session may still complete
+     */
+    @Query("""
+            SELECT COUNT(b) > 0
+            FROM Booking b
+            WHERE b.hotel.id = :hotelId
+              AND ((b.bookingStatus = com.rightmeprove.airbnb.airBnbApp.entity.enums.BookingStatus.CONFIRMED
+                    AND b.checkOutDate >= :today)
+                OR (b.bookingStatus IN (com.rightmeprove.airbnb.airBnbApp.entity.enums.BookingStatus.RESERVED,
+                                        com.rightmeprove.airbnb.airBnbApp.entity.enums.BookingStatus.GUESTS_ADDED)
+                    AND b.createdAt > :reservedSince)
+                OR (b.bookingStatus = com.rightmeprove.airbnb.airBnbApp.entity.enums.BookingStatus.PAYMENT_PENDING
+                    AND b.updatedAt > :checkoutSince))
+            """)
+    boolean existsOpenByHotelId(@Param("hotelId") Long hotelId,
+                                @Param("today") LocalDate today,
+                                @Param("reservedSince") LocalDateTime reservedSince,
+                                @Param("checkoutSince") LocalDateTime checkoutSince);
+
+    /**
+     * Mark the hotel's abandoned bookings (reserved or waiting for payment, past their expiry) as EXPIRED.
+     * Only run once existsOpenByHotelId is false, so none of them can still be completed.
+     */
+    @Modifying
+    @Query("""
+            UPDATE Booking b
+            SET b.bookingStatus = com.rightmeprove.airbnb.airBnbApp.entity.enums.BookingStatus.EXPIRED,
+                b.updatedAt = :now
+            WHERE b.hotel.id = :hotelId
+              AND b.bookingStatus IN (com.rightmeprove.airbnb.airBnbApp.entity.enums.BookingStatus.RESERVED,
+                                      com.rightmeprove.airbnb.airBnbApp.entity.enums.BookingStatus.GUESTS_ADDED,
+                                      com.rightmeprove.airbnb.airBnbApp.entity.enums.BookingStatus.PAYMENT_PENDING)
+            """)
+    int expireAbandonedByHotelId(@Param("hotelId") Long hotelId, @Param("now") LocalDateTime now);
+
+    // Next batch of booking IDs of a hotel (hotel deletion, together with the archive moves below)
+    @Query("SELECT b.id FROM Booking b WHERE b.hotel.id = :hotelId")
+    List<Long> findIdsByHotelId(@Param("hotelId") Long hotelId, Limit limit);
+
+    /**
+     * Move the guest links of the given bookings to archive.booking_guest (schema.sql), before the bookings.
+     * @return number of links moved
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "booking_guest"))
+    @Query(value = """
+            WITH moved AS (
+                DELETE FROM booking_guest WHERE booking_id IN (:bookingIds)
+                RETURNING booking_id, guest_id)
+            INSERT INTO archive.booking_guest (booking_id, guest_id)
+            SELECT booking_id, guest_id FROM moved
+            """, nativeQuery = true)
+    int archiveGuestLinksByBookingIds(@Param("bookingIds") Collection<Long> bookingIds);
+
+    /**
+     * Move the given bookings to archive.booking (schema.sql): same columns, no foreign keys,
+     * so the booking history (amounts, payment sessions) is kept after its hotel and rooms are gone.
+     * @return number of bookings moved
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "booking"))
+    @Query(value = """
+            WITH moved AS (
+                DELETE FROM booking WHERE id IN (:bookingIds)
+                RETURNING id, amount, booking_status, check_in_date, check_out_date, created_at,
+                          payment_session_id, rooms_count, updated_at, hotel_id, room_id, user_id)
+            INSERT INTO archive.booking (id, amount, booking_status, check_in_date, check_out_date, created_at,
+                                         payment_session_id, rooms_count, updated_at, hotel_id, room_id, user_id)
+            SELECT * FROM moved
+            """, nativeQuery = true)
+    int archiveByIds(@Param("bookingIds") Collection<Long> bookingIds);
+
+    /**
+     * Interface projection: a guest together with the ID of the booking it belongs to.
+     */
+    interface BookingGuest {
+        Long getBookingId();
+
+        Guest getGuest();
+    }
 }
@@ -0,0 +1,133 @@
+package com.rightmeprove.airbnb.airBnbApp.repository;
+
+import com.rightmeprove.airbnb.airBnbApp.entity.HotelDailyStats;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository for the HotelDailyStats rollup.
+ *
+ * - Incremental changes are native upserts (INSERT ... ON CONFLICT DO UPDATE) that add deltas,
+ *   so concurrent confirmations/cancellations of the same hotel and day never overwrite each other.
+ * - A hotel's rows can be rebuilt from its bookings and inventory (backfill).
+ * - Every native write names its table (native spaces hint): otherwise Hibernate assumes it touched
+ *   every table and empties the Hotel/Room second-level caches on each payment or cancellation.
+ */
+public interface HotelDailyStatsRepository extends JpaRepository<HotelDailyStats, Long> {
+
+    // Rollup rows of a hotel for a report window (at most one per day)
+    List<HotelDailyStats> findByHotelIdAndDateBetweenOrderByDate(Long hotelId, LocalDate startDate, LocalDate endDate);
+
+    // Any row at all (an empty rollup needs a backfill)
+    Optional<HotelDailyStats> findFirstByOrderByIdAsc();
+
+    /**
+     * Add booking deltas to the hotel's row of the given day (created when missing).
+     * Confirmation: (+1, +amount, 0); cancellation: (-1, -amount, +1).
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "hotel_daily_stats"))
+    @Query(value = """
+            INSERT INTO hotel_daily_stats (hotel_id, date, confirmed_bookings, revenue, cancelled_bookings,
+                                           room_nights_sold, room_revenue, room_nights_available)
+            VALUES (:hotelId, :date, :confirmedBookings, :revenue, :cancelledBookings, 0, 0, 0)
+            ON CONFLICT (hotel_id, date) DO UPDATE
+            SET confirmed_bookings = hotel_daily_stats.confirmed_bookings + EXCLUDED.confirmed_bookings,
+                revenue = hotel_daily_stats.revenue + EXCLUDED.revenue,
+                cancelled_bookings = hotel_daily_stats.cancelled_bookings + EXCLUDED.cancelled_bookings
+            """, nativeQuery = true)
+    void addBookings(@Param("hotelId") Long hotelId,
+                     @Param("date") LocalDate date,
+                     @Param("confirmedBookings") int confirmedBookings,
+                     @Param("revenue") BigDecimal revenue,
+                     @Param("cancelledBookings") int cancelledBookings);
+
+    /**
+     * Add sold rooms and revenue to every day of a stay (startDate..endDate, both included,
+     * like the inventory). The first day gets firstDayRevenue (it carries the rounding remainder),
+     * the others dailyRevenue. Rooms offered on those days are refreshed from the inventory.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "hotel_daily_stats"))
+    @Query(value = """
+            INSERT INTO hotel_daily_stats (hotel_id, date, confirmed_bookings, revenue, cancelled_bookings,
+                                           room_nights_sold, room_revenue, room_nights_available)
+            SELECT :hotelId, CAST(d AS date), 0, 0, 0, :rooms,
+                   CASE WHEN CAST(d AS date) = :startDate THEN :firstDayRevenue ELSE :dailyRevenue END,
+                   (SELECT COALESCE(SUM(CASE WHEN i.closed THEN 0 ELSE i.total_count END), 0)
+                    FROM inventory i
+                    WHERE i.hotel_id = :hotelId AND i.date = CAST(d AS date))
+            FROM generate_series(CAST(:startDate AS date), CAST(:endDate AS date), INTERVAL '1 day') AS d
+            ON CONFLICT (hotel_id, date) DO UPDATE
+            SET room_nights_sold = hotel_daily_stats.room_nights_sold + EXCLUDED.room_nights_sold,
+                room_revenue = hotel_daily_stats.room_revenue + EXCLUDED.room_revenue,
+                room_nights_available = EXCLUDED.room_nights_available
+            """, nativeQuery = true)
+    void addStay(@Param("hotelId") Long hotelId,
+                 @Param("startDate") LocalDate startDate,
+                 @Param("endDate") LocalDate endDate,
+                 @Param("rooms") int rooms,
+                 @Param("firstDayRevenue") BigDecimal firstDayRevenue,
+                 @Param("dailyRevenue") BigDecimal dailyRevenue);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "hotel_daily_stats"))
+    @Query(value = "DELETE FROM hotel_daily_stats WHERE hotel_id = :hotelId", nativeQuery = true)
+    void deleteAllByHotelId(@Param("hotelId") Long hotelId);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "hotel_daily_stats"))
+    @Query(value = "DELETE FROM hotel_daily_stats WHERE hotel_id = :hotelId AND date >= :fromDate", nativeQuery = true)
+    void deleteByHotelIdFrom(@Param("hotelId") Long hotelId, @Param("fromDate") LocalDate fromDate);
+
+    /**
+     * Rebuild a hotel's rows from fromDate on (after deleteByHotelIdFrom, same transaction):
+     * bookings on their creation day, confirmed stays on each of their days (same revenue split
+     * as addStay), rooms offered per day from the inventory.
+     * Earlier days are left alone: their inventory may already be archived.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "hotel_daily_stats"))
+    @Query(value = """
+            INSERT INTO hotel_daily_stats (hotel_id, date, confirmed_bookings, revenue, cancelled_bookings,
+                                           room_nights_sold, room_revenue, room_nights_available)
+            SELECT :hotelId, t.day, SUM(t.confirmed_bookings), SUM(t.revenue), SUM(t.cancelled_bookings),
+                   SUM(t.room_nights_sold), SUM(t.room_revenue), SUM(t.room_nights_available)
+            FROM (
+                SELECT CAST(b.created_at AS date) AS day,
+                       CASE WHEN b.booking_status = 'CONFIRMED' THEN 1 ELSE 0 END AS confirmed_bookings,
+                       CASE WHEN b.booking_status = 'CONFIRMED' THEN b.amount ELSE 0 END AS revenue,
+                       CASE WHEN b.booking_status = 'CANCELLED' THEN 1 ELSE 0 END AS cancelled_bookings,
+                       0 AS room_nights_sold, 0 AS room_revenue, 0 AS room_nights_available
+                FROM booking b
+                WHERE b.hotel_id = :hotelId AND b.booking_status IN ('CONFIRMED', 'CANCELLED')
+                UNION ALL
+                SELECT CAST(d AS date), 0, 0, 0, b.rooms_count,
+                       CASE WHEN CAST(d AS date) = b.check_in_date
+                            THEN b.amount - ROUND(b.amount / s.days, 2) * (s.days - 1)
+                            ELSE ROUND(b.amount / s.days, 2) END,
+                       0
+                FROM booking b
+                CROSS JOIN LATERAL (SELECT b.check_out_date - b.check_in_date + 1 AS days) s
+                CROSS JOIN LATERAL generate_series(b.check_in_date, b.check_out_date, INTERVAL '1 day') AS d
+                WHERE b.hotel_id = :hotelId AND b.booking_status = 'CONFIRMED'
+                UNION ALL
+                SELECT i.date, 0, 0, 0, 0, 0, CASE WHEN i.closed THEN 0 ELSE i.total_count END
+                FROM inventory i
+                WHERE i.hotel_id = :hotelId AND i.date >= :fromDate
+            ) AS t
+            WHERE t.day >= :fromDate
+            GROUP BY t.day
+            """, nativeQuery = true)
+    int insertFromBookingsAndInventory(@Param("hotelId") Long hotelId, @Param("fromDate") LocalDate fromDate);
+}
@@ -0,0 +1,24 @@
+package com.rightmeprove.airbnb.airBnbApp.repository;
+
+import com.rightmeprove.airbnb.airBnbApp.entity.HotelDeletionJob;
+import com.rightmeprove.airbnb.airBnbApp.entity.enums.HotelDeletionStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository for HotelDeletionJob entity (background hotel deletions and their progress).
+ */
+public interface HotelDeletionJobRepository extends JpaRepository<HotelDeletionJob, Long> {
+
+    // Latest deletion job of a hotel
+    Optional<HotelDeletionJob> findFirstByHotelIdOrderByIdDesc(Long hotelId);
+
+    // Whether a deletion of the hotel is queued or running
+    boolean existsByHotelIdAndStatusIn(Long hotelId, Collection<HotelDeletionStatus> statuses);
+
+    // Jobs to resume at startup (interrupted by a restart), oldest first
+    List<HotelDeletionJob> findByStatusInOrderById(Collection<HotelDeletionStatus> statuses);
+}
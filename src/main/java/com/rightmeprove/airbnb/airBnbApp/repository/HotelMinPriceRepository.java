@@ -1,15 +1,19 @@
 package com.rightmeprove.airbnb.airBnbApp.repository;
 
-import com.rightmeprove.airbnb.airBnbApp.dto.HotelPriceDto;
 import com.rightmeprove.airbnb.airBnbApp.entity.Hotel;
 import com.rightmeprove.airbnb.airBnbApp.entity.HotelMinPrice;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -21,32 +25,196 @@ import java.util.Optional;
 public interface HotelMinPriceRepository extends JpaRepository<HotelMinPrice, Long> {
 
     /**
-     * Finds hotels with available inventory in a given city and date range.
-     * Returns a page of HotelPriceDto with hotel info + average price.
+     * One page of hotels in a city with their average min price over a date range,
+     * ordered by (average price, hotel ID) — a total order, so results are deterministic.
+     *
+     * Keyset ("seek") pagination: instead of OFFSET, the page starts after the last
+     * (price, hotelId) of the previous page (afterPrice/afterHotelId, both null for the first page).
+     * Deep pages cost the same as the first one and no count query is run.
+     * The average is SUM / COUNT over NUMERIC prices: an exact decimal returned as a BigDecimal,
+     * so the cursor carries the very value the next page compares against (ties included),
+     * where AVG would come back as a rounded double.
+     *
+     * Groups by hotel ID only; hotel details for the page are loaded separately.
      *
      * Filters:
-     * - city
+     * - city (case-insensitive: callers pass the lower-cased city)
      * - date range
      * - active hotels only
-     * Groups results by hotel and calculates average price over the period.
+     * - hotel amenities: the hotel must offer all of them (TEXT[] @>, GIN index);
+     *   skipped when filterAmenities is false
+     * - room: at least one room with capacity >= minCapacity offering all roomAmenities;
+     *   skipped when filterRooms is false
+     * - price band on the average price (minPrice/maxPrice, null = open)
      */
     @Query("""
-           SELECT new com.rightmeprove.airbnb.airBnbApp.dto.HotelPriceDto(i.hotel, AVG(i.price))
+           SELECT i.hotel.id AS hotelId, SUM(i.price) / COUNT(i) AS price
            FROM HotelMinPrice i
-           WHERE i.hotel.city = :city
-             AND i.date BETWEEN :startDate AND :endDate
+           WHERE LOWER(i.hotel.city) = :#{#filter.city()}
+             AND i.date BETWEEN :#{#filter.startDate()} AND :#{#filter.endDate()}
              AND i.hotel.active = true
-           GROUP BY i.hotel
+             AND (:#{#filter.filterAmenities()} = false
+                  OR text_array_contains_all(i.hotel.amenities, :#{#filter.amenities()}) = true)
+             AND (:#{#filter.filterRooms()} = false
+                  OR i.hotel.id IN (SELECT r.hotel.id FROM Room r
+                                    WHERE r.capacity >= :#{#filter.minCapacity()}
+                                      AND (:#{#filter.filterRoomAmenities()} = false
+                                           OR text_array_contains_all(r.amenities, :#{#filter.roomAmenities()}) = true)))
+           GROUP BY i.hotel.id
+           HAVING (:#{#filter.minPrice()} IS NULL OR SUM(i.price) / COUNT(i) >= :#{#filter.minPrice()})
+              AND (:#{#filter.maxPrice()} IS NULL OR SUM(i.price) / COUNT(i) <= :#{#filter.maxPrice()})
+              AND (:afterPrice IS NULL
+                   OR SUM(i.price) / COUNT(i) > :afterPrice
+                   OR (SUM(i.price) / COUNT(i) = :afterPrice AND i.hotel.id > :afterHotelId))
+           ORDER BY SUM(i.price) / COUNT(i), i.hotel.id
            """)
-    Page<HotelPriceDto> findHotelWithAvailableInventory(
-            @Param("city") String city,
+    List<HotelAvgPrice> findHotelPricesPage(
+            @Param("filter") SearchFilter filter,
+            @Param("afterPrice") BigDecimal afterPrice,
+            @Param("afterHotelId") Long afterHotelId,
+            Limit limit
+    );
+
+    /**
+     * Total number of hotels matched by findHotelPricesPage (only run when the client asks for it).
+     */
+    @Query("""
+           SELECT COUNT(h)
+           FROM Hotel h
+           WHERE h.id IN (
+               SELECT i.hotel.id
+               FROM HotelMinPrice i
+               WHERE LOWER(i.hotel.city) = :#{#filter.city()}
+                 AND i.date BETWEEN :#{#filter.startDate()} AND :#{#filter.endDate()}
+                 AND i.hotel.active = true
+                 AND (:#{#filter.filterAmenities()} = false
+                      OR text_array_contains_all(i.hotel.amenities, :#{#filter.amenities()}) = true)
+                 AND (:#{#filter.filterRooms()} = false
+                      OR i.hotel.id IN (SELECT r.hotel.id FROM Room r
+                                        WHERE r.capacity >= :#{#filter.minCapacity()}
+                                          AND (:#{#filter.filterRoomAmenities()} = false
+                                               OR text_array_contains_all(r.amenities, :#{#filter.roomAmenities()}) = true)))
+               GROUP BY i.hotel.id
+               HAVING (:#{#filter.minPrice()} IS NULL OR SUM(i.price) / COUNT(i) >= :#{#filter.minPrice()})
+                  AND (:#{#filter.maxPrice()} IS NULL OR SUM(i.price) / COUNT(i) <= :#{#filter.maxPrice()}))
+           """)
+    long countHotelsWithPrices(@Param("filter") SearchFilter filter);
+
+    /**
+     * Search criteria shared by findHotelPricesPage and countHotelsWithPrices.
+     * Array filters come with an explicit on/off flag: a NULL amenities column never
+     * "contains" anything, so an empty filter must skip the predicate rather than match '{}'.
+     */
+    record SearchFilter(String city,
+                        LocalDate startDate,
+                        LocalDate endDate,
+                        String[] amenities,
+                        String[] roomAmenities,
+                        Integer minCapacity,
+                        Double minPrice,
+                        Double maxPrice) {
+
+        public boolean filterAmenities() {
+            return amenities.length > 0;
+        }
+
+        public boolean filterRoomAmenities() {
+            return roomAmenities.length > 0;
+        }
+
+        public boolean filterRooms() {
+            return minCapacity > 1 || filterRoomAmenities();
+        }
+    }
+
+    /**
+     * Projection row of findHotelPricesPage.
+     */
+    interface HotelAvgPrice {
+        Long getHotelId();
+        BigDecimal getPrice();
+    }
+
+    /**
+     * Daily min prices of one hotel over a date range, ordered by date (price calendar).
+     */
+    @Query("""
+           SELECT new com.rightmeprove.airbnb.airBnbApp.repository.HotelMinPriceRepository$DailyPrice(
+               i.hotel.id, i.date, i.price)
+           FROM HotelMinPrice i
+           WHERE i.hotel.id = :hotelId
+             AND i.date BETWEEN :startDate AND :endDate
+           ORDER BY i.date
+           """)
+    List<DailyPrice> findDailyPricesByHotelId(
+            @Param("hotelId") Long hotelId,
             @Param("startDate") LocalDate startDate,
-            @Param("endDate") LocalDate endDate,
-            @Param("roomsCount") Integer roomsCount, // currently unused
-            @Param("dateCount") Long dateCount,      // currently unused
-            Pageable pageable
+            @Param("endDate") LocalDate endDate
     );
 
+    /**
+     * Row of findDailyPricesByHotelId.
+     */
+    record DailyPrice(Long hotelId, LocalDate date, BigDecimal price) {
+    }
+
+    /**
+     * Refresh the hotel's min prices over [startDate, endDate] from its inventory, in one statement:
+     * one aggregate over the inventory days, inserted or updated on the (hotel_id, date) key.
+     * Rows whose price did not change are left untouched.
+     * The native spaces hint tells Hibernate which table the statement writes; without it a native
+     * update counts as touching every table and evicts all second-level and query cache regions.
+     * @return number of rows inserted or updated
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "hotel_min_price"))
+    @Query(value = """
+            INSERT INTO hotel_min_price (hotel_id, date, price, created_at, updated_at)
+            SELECT i.hotel_id, i.date, MIN(i.price), now(), now()
+            FROM inventory i
+            WHERE i.hotel_id = :hotelId
+              AND i.date BETWEEN :startDate AND :endDate
+            GROUP BY i.hotel_id, i.date
+            ON CONFLICT (hotel_id, date) DO UPDATE
+                SET price = EXCLUDED.price, updated_at = EXCLUDED.updated_at
+                WHERE hotel_min_price.price IS DISTINCT FROM EXCLUDED.price
+            """, nativeQuery = true)
+    int upsertFromInventory(@Param("hotelId") Long hotelId,
+                            @Param("startDate") LocalDate startDate,
+                            @Param("endDate") LocalDate endDate);
+
+    /**
+     * First and last min-price day of a hotel (hotel deletion walks this span month by month).
+     * Both null when the hotel has no rows.
+     */
+    @Query("""
+           SELECT new com.rightmeprove.airbnb.airBnbApp.repository.InventoryRepository$DateSpan(MIN(i.date), MAX(i.date))
+           FROM HotelMinPrice i
+           WHERE i.hotel.id = :hotelId
+           """)
+    InventoryRepository.DateSpan findDateSpanByHotelId(@Param("hotelId") Long hotelId);
+
+    /**
+     * Delete a hotel's min prices in [fromDate, toDate) with one statement (one month = one partition).
+     * @return number of rows deleted
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "hotel_min_price"))
+    @Query(value = """
+           DELETE FROM hotel_min_price
+           WHERE hotel_id = :hotelId
+             AND date >= :fromDate AND date < :toDate
+           """, nativeQuery = true)
+    int deleteByHotelIdAndDateRange(@Param("hotelId") Long hotelId,
+                                    @Param("fromDate") LocalDate fromDate,
+                                    @Param("toDate") LocalDate toDate);
+
+    // All min prices of a hotel, whatever their month (last step of a hotel deletion)
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "hotel_min_price"))
+    @Query(value = "DELETE FROM hotel_min_price WHERE hotel_id = :hotelId", nativeQuery = true)
+    int deleteAllByHotelId(@Param("hotelId") Long hotelId);
+
     /**
      * Find a HotelMinPrice entry for a specific hotel and date.
      * Useful for updating or retrieving the minimum price for a given day.
@@ -1,11 +1,18 @@
 package com.rightmeprove.airbnb.airBnbApp.repository;
 
+import com.rightmeprove.airbnb.airBnbApp.dto.HotelDto;
 import com.rightmeprove.airbnb.airBnbApp.entity.Hotel;
-import com.rightmeprove.airbnb.airBnbApp.entity.User;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Repository for Hotel entity.
@@ -14,9 +21,106 @@ import java.util.List;
 @Repository
 public interface HotelRepository extends JpaRepository<Hotel, Long> {
 
+    /**
+     * Finds a hotel together with its rooms in a single query.
+     * Avoids the extra lazy load of hotel.getRooms() on hotel info and activation.
+     */
+    @EntityGraph(attributePaths = {"owner", "rooms"})
+    Optional<Hotel> findWithRoomsById(Long id);
+
     /**
      * Finds all hotels owned by a specific user (hotel manager).
      * Useful for admin dashboards or managing a user's hotels.
+     * Read-only projection: selects HotelDto columns without hydrating Hotel entities.
+     */
+    @Query("""
+            SELECT new com.rightmeprove.airbnb.airBnbApp.dto.HotelDto(
+                h.id, h.name, h.city, h.photos, h.amenities, h.contactInfo, h.active)
+            FROM Hotel h
+            WHERE h.owner.id = :ownerId
+            """)
+    List<HotelDto> findHotelDtosByOwnerId(@Param("ownerId") Long ownerId);
+
+    /**
+     * Read-only projection of the given hotels (e.g. one page of search results).
+     */
+    @Query("""
+            SELECT new com.rightmeprove.airbnb.airBnbApp.dto.HotelDto(
+                h.id, h.name, h.city, h.photos, h.amenities, h.contactInfo, h.active)
+            FROM Hotel h
+            WHERE h.id IN :ids
+            """)
+    List<HotelDto> findHotelDtosByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * IDs of all hotels, in order (batch jobs that work hotel by hotel).
+     * Hotels with a queued or running deletion are left out, so the jobs do not re-create their rows.
+     */
+    @Query("""
+            SELECT h.id FROM Hotel h
+            WHERE NOT EXISTS (SELECT j.id FROM HotelDeletionJob j
+                              WHERE j.hotelId = h.id
+                                AND j.status IN (com.rightmeprove.airbnb.airBnbApp.entity.enums.HotelDeletionStatus.PENDING,
+                                                 com.rightmeprove.airbnb.airBnbApp.entity.enums.HotelDeletionStatus.RUNNING))
+            ORDER BY h.id
+            """)
+    List<Long> findIdsNotBeingDeleted();
+
+    /**
+     * One page of hotels, leaving out the ones with a queued or running deletion (hourly pricing job).
+     */
+    @Query("""
+            SELECT h FROM Hotel h
+            WHERE NOT EXISTS (SELECT j.id FROM HotelDeletionJob j
+                              WHERE j.hotelId = h.id
+                                AND j.status IN (com.rightmeprove.airbnb.airBnbApp.entity.enums.HotelDeletionStatus.PENDING,
+                                                 com.rightmeprove.airbnb.airBnbApp.entity.enums.HotelDeletionStatus.RUNNING))
+            ORDER BY h.id
+            """)
+    Page<Hotel> findAllNotBeingDeleted(Pageable pageable);
+
+    /**
+     * Lock the hotel row against new references (FOR UPDATE conflicts with the KEY SHARE lock a
+     * foreign key insert takes and with findActiveForBooking), when its deletion is queued and
+     * right before the hotel is deleted.
+     */
+    @Query(value = "SELECT id FROM hotel WHERE id = :hotelId FOR UPDATE", nativeQuery = true)
+    Long lockForDeletion(@Param("hotelId") Long hotelId);
+
+    /**
+     * Active flag of a hotel read from the table (never the second-level cache, which may be stale
+     * on other instances), locked FOR SHARE until the booking commits: a deletion queued meanwhile
+     * waits for it and then sees the booking. Null when the hotel does not exist.
+     */
+    @Query(value = "SELECT COALESCE(active, false) FROM hotel WHERE id = :hotelId FOR SHARE", nativeQuery = true)
+    Boolean findActiveForBooking(@Param("hotelId") Long hotelId);
+
+    /**
+     * City and amenities of all active hotels (startup build of HotelFacetIndex).
+     * Constructor projection: only these columns are selected, no Hotel entities hydrated.
+     */
+    @Query("""
+            SELECT new com.rightmeprove.airbnb.airBnbApp.repository.HotelRepository$HotelFacetRow(
+                h.id, h.city, h.amenities, h.active)
+            FROM Hotel h
+            WHERE h.active = true
+            """)
+    List<HotelFacetRow> findActiveFacetRows();
+
+    /**
+     * City, amenities and active flag of one hotel (incremental HotelFacetIndex update).
+     */
+    @Query("""
+            SELECT new com.rightmeprove.airbnb.airBnbApp.repository.HotelRepository$HotelFacetRow(
+                h.id, h.city, h.amenities, h.active)
+            FROM Hotel h
+            WHERE h.id = :id
+            """)
+    Optional<HotelFacetRow> findFacetRowById(@Param("id") Long id);
+
+    /**
+     * Projection row of the facet queries.
      */
-    List<Hotel> findByOwner(User user);
+    record HotelFacetRow(Long id, String city, String[] amenities, Boolean active) {
+    }
 }
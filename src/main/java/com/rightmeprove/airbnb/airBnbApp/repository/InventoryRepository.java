@@ -1,9 +1,12 @@
 package com.rightmeprove.airbnb.airBnbApp.repository;
 
+import com.rightmeprove.airbnb.airBnbApp.dto.InventoryDto;
 import com.rightmeprove.airbnb.airBnbApp.entity.Hotel;
 import com.rightmeprove.airbnb.airBnbApp.entity.Inventory;
 import com.rightmeprove.airbnb.airBnbApp.entity.Room;
 import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.*;
@@ -12,7 +15,9 @@ import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Repository for managing Inventory entity.
@@ -24,6 +29,74 @@ public interface InventoryRepository extends JpaRepository<Inventory, Long> {
     // Delete all inventory entries of a room (useful when a room is removed)
     void deleteByRoom(Room room);
 
+    /**
+     * First and last inventory day of a hotel (hotel deletion walks this span month by month).
+     * Both null when the hotel has no inventory.
+     */
+    @Query("""
+            SELECT new com.rightmeprove.airbnb.airBnbApp.repository.InventoryRepository$DateSpan(MIN(i.date), MAX(i.date))
+            FROM Inventory i
+            WHERE i.hotel.id = :hotelId
+            """)
+    DateSpan findDateSpanByHotelId(@Param("hotelId") Long hotelId);
+
+    /**
+     * Delete a hotel's inventory in [fromDate, toDate) with one statement, without loading the rows.
+     * Called with one month at a time, the range matches a single partition.
+     * @return number of rows deleted
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "inventory"))
+    @Query(value = """
+            DELETE FROM inventory
+            WHERE hotel_id = :hotelId
+              AND date >= :fromDate AND date < :toDate
+            """, nativeQuery = true)
+    int deleteByHotelIdAndDateRange(@Param("hotelId") Long hotelId,
+                                    @Param("fromDate") LocalDate fromDate,
+                                    @Param("toDate") LocalDate toDate);
+
+    /**
+     * Row of findDateSpanByHotelId (also used by HotelMinPriceRepository).
+     */
+    record DateSpan(LocalDate firstDate, LocalDate lastDate) {
+    }
+
+    /**
+     * Append the missing days up to endDate for the given rooms, in one statement.
+     * - Each room starts after its last inventory day (or at startDate when it has none / is behind),
+     *   found by a backward scan of the (hotel_id, room_id, date) index; gaps before that day are not filled.
+     * - New days get the same defaults as a new room: base price, no surge, nothing booked, open.
+     * - ON CONFLICT DO NOTHING keeps the statement safe to repeat (or to race with another writer).
+     * @return number of rows inserted
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "inventory"))
+    @Query(value = """
+            INSERT INTO inventory (hotel_id, room_id, city, date, booked_count, reserved_count, total_count,
+                                   surge_factor, price, closed, created_at, updated_at)
+            SELECT r.hotel_id, r.id, h.city, CAST(d AS date), 0, 0, r.total_count,
+                   1, r.base_price, false, now(), CURRENT_DATE
+            FROM room r
+            JOIN hotel h ON h.id = r.hotel_id
+            CROSS JOIN LATERAL (
+                SELECT MAX(i.date) + 1 AS next_day
+                FROM inventory i
+                WHERE i.hotel_id = r.hotel_id AND i.room_id = r.id
+            ) last
+            CROSS JOIN LATERAL generate_series(GREATEST(CAST(:startDate AS date), last.next_day),
+                                               CAST(:endDate AS date), INTERVAL '1 day') AS d
+            WHERE r.id IN (:roomIds)
+            ON CONFLICT (hotel_id, room_id, date) DO NOTHING
+            """, nativeQuery = true)
+    int insertMissingDays(@Param("roomIds") Collection<Long> roomIds,
+                          @Param("startDate") LocalDate startDate,
+                          @Param("endDate") LocalDate endDate);
+
+    // Distinct cities that have inventory (seed of CitySuggestionIndex)
+    @Query("SELECT DISTINCT i.city FROM Inventory i WHERE i.city IS NOT NULL")
+    List<String> findDistinctCities();
+
     /**
      * Search for hotels with available inventory in a city for a date range.
      * - Ensures room availability for all dates in the range.
@@ -49,6 +122,34 @@ public interface InventoryRepository extends JpaRepository<Inventory, Long> {
             Pageable pageable
     );
 
+    /**
+     * Nightly prices of every room of the active hotels in a city over a date range, for the nights
+     * the room can still take roomsCount rooms (open, total - booked - reserved >= roomsCount),
+     * ordered by hotel, room then date (flexible-date search reads each room's series once).
+     * A night the room is closed or sold out has no row. Streamed with a fetch size, so a large
+     * city is never held in memory as a whole; must be consumed inside a transaction and closed.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("""
+            SELECT new com.rightmeprove.airbnb.airBnbApp.repository.InventoryRepository$RoomNightPrice(
+                i.hotel.id, i.room.id, i.date, i.price)
+            FROM Inventory i
+            WHERE LOWER(i.hotel.city) = :city
+              AND i.hotel.active = true
+              AND i.date BETWEEN :startDate AND :endDate
+              AND i.closed = false
+              AND (i.totalCount - i.bookedCount - i.reservedCount) >= :roomsCount
+            ORDER BY i.hotel.id, i.room.id, i.date
+            """)
+    Stream<RoomNightPrice> streamAvailableRoomPrices(@Param("city") String city,
+                                                     @Param("startDate") LocalDate startDate,
+                                                     @Param("endDate") LocalDate endDate,
+                                                     @Param("roomsCount") Integer roomsCount);
+
+    // Row of streamAvailableRoomPrices
+    record RoomNightPrice(Long hotelId, Long roomId, LocalDate date, BigDecimal price) {
+    }
+
     /**
      * Lock inventory rows for a room + date range to prevent concurrent bookings.
      * - Pessimistic lock ensures only one transaction can update the rows at a time.
@@ -99,7 +200,7 @@ public interface InventoryRepository extends JpaRepository<Inventory, Long> {
                      @Param("endDate") LocalDate endDate,
                      @Param("numberOfRooms") int numberOfRooms);
 
-    // Confirm booking: move rooms from reserved → booked
+    // Confirm booking: move rooms from reserved → booked; returns the days updated
     @Modifying
     @Query("""
             UPDATE Inventory i
@@ -111,12 +212,12 @@ public interface InventoryRepository extends JpaRepository<Inventory, Long> {
               AND i.reservedCount >= :numberOfRooms
               AND i.closed = false
             """)
-    void confirmBooking(@Param("roomId") Long roomId,
+    int confirmBooking(@Param("roomId") Long roomId,
                         @Param("startDate") LocalDate startDate,
                         @Param("endDate") LocalDate endDate,
                         @Param("numberOfRooms") int numberOfRooms);
 
-    // Cancel booking: decrement booked count
+    // Cancel booking: decrement booked count; returns the days updated
     @Modifying
     @Query("""
             UPDATE Inventory i
@@ -126,14 +227,68 @@ public interface InventoryRepository extends JpaRepository<Inventory, Long> {
               AND (i.totalCount - i.bookedCount) >= :numberOfRooms
               AND i.closed = false
             """)
-    void cancelBooking(@Param("roomId")Long roomId,
+    int cancelBooking(@Param("roomId")Long roomId,
                        @Param("startDate")LocalDate startDate,
                        @Param("endDate") LocalDate endDate,
                        @Param("numberOfRooms") int numberOfRooms);
 
     List<Inventory> findByHotelAndDateBetween(Hotel hotel, LocalDate startDate, LocalDate endDate);
 
-    List<Inventory> findByRoomOrderByDate(Room room);
+    /**
+     * Rooms still bookable per day across all room types of a hotel (price calendar).
+     * Closed inventory counts as 0; one row per day, aggregated in the database.
+     */
+    @Query("""
+            SELECT new com.rightmeprove.airbnb.airBnbApp.repository.InventoryRepository$DailyAvailability(
+                i.date,
+                SUM(CASE WHEN i.closed = false THEN i.totalCount - i.bookedCount - i.reservedCount ELSE 0 END))
+            FROM Inventory i
+            WHERE i.hotel.id = :hotelId
+              AND i.date BETWEEN :startDate AND :endDate
+            GROUP BY i.date
+            """)
+    List<DailyAvailability> findDailyAvailabilityByHotelId(@Param("hotelId") Long hotelId,
+                                                           @Param("startDate") LocalDate startDate,
+                                                           @Param("endDate") LocalDate endDate);
+
+    // Row of findDailyAvailabilityByHotelId
+    record DailyAvailability(LocalDate date, Long availableRooms) {
+    }
+
+    /**
+     * Read-only projection of a room's inventory ordered by date.
+     * Selects only InventoryDto columns; no Inventory entities enter the persistence context.
+     */
+    @Query("""
+            SELECT new com.rightmeprove.airbnb.airBnbApp.dto.InventoryDto(
+                i.id, i.date, i.bookedCount, i.reservedCount, i.totalCount,
+                i.surgeFactor, i.price, i.closed, i.createdAt, i.updatedAt)
+            FROM Inventory i
+            WHERE i.room.id = :roomId
+            ORDER BY i.date
+            """)
+    List<InventoryDto> findInventoryDtosByRoomId(@Param("roomId") Long roomId);
+
+    /**
+     * A room's inventory over a date range, ordered by date (compact admin listing).
+     * Only the columns of InventoryRangeDto, no entities.
+     */
+    @Query("""
+            SELECT new com.rightmeprove.airbnb.airBnbApp.repository.InventoryRepository$InventoryDay(
+                i.date, i.price, i.surgeFactor, i.bookedCount, i.reservedCount, i.totalCount, i.closed)
+            FROM Inventory i
+            WHERE i.room.id = :roomId
+              AND i.date BETWEEN :startDate AND :endDate
+            ORDER BY i.date
+            """)
+    List<InventoryDay> findInventoryDaysByRoomId(@Param("roomId") Long roomId,
+                                                 @Param("startDate") LocalDate startDate,
+                                                 @Param("endDate") LocalDate endDate);
+
+    // Row of findInventoryDaysByRoomId
+    record InventoryDay(LocalDate date, BigDecimal price, BigDecimal surgeFactor, int bookedCount,
+                        Integer reservedCount, Integer totalCount, Boolean closed) {
+    }
 
     // Lock inventory rows before updating (for admin adjustments)
     @Query("""
@@ -147,6 +302,90 @@ public interface InventoryRepository extends JpaRepository<Inventory, Long> {
                                                     @Param("startDate") LocalDate startDate,
                                                     @Param("endDate") LocalDate endDate);
 
+    /**
+     * Lock a room's inventory over a date range for a bulk update, in date order.
+     * Called room by room in ascending room ID, so every bulk update takes its row locks in
+     * (room, date) order and two overlapping bulk updates queue up instead of deadlocking.
+     * Returns the locked IDs only; no entities are loaded.
+     */
+    @Query("""
+            SELECT i.id
+            FROM Inventory i
+            WHERE i.room.id = :roomId
+              AND i.date BETWEEN :startDate AND :endDate
+            ORDER BY i.date
+            """)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<Long> lockInventoryOfRoom(@Param("roomId") Long roomId,
+                                   @Param("startDate") LocalDate startDate,
+                                   @Param("endDate") LocalDate endDate);
+
+    /**
+     * Bulk admin update: the same range and values for several rooms in one statement.
+     * A null surgeFactor/closed keeps the current value.
+     * @return number of rows updated, per room (rooms without inventory in the range are absent)
+     */
+    @Query(value = """
+            WITH updated AS (
+                UPDATE inventory
+                SET surge_factor = COALESCE(CAST(:surgeFactor AS numeric), surge_factor),
+                    closed = COALESCE(CAST(:closed AS boolean), closed)
+                WHERE room_id IN (:roomIds)
+                  AND date BETWEEN :startDate AND :endDate
+                RETURNING room_id
+            )
+            SELECT room_id AS roomId, COUNT(*) AS updatedDays
+            FROM updated
+            GROUP BY room_id
+            """, nativeQuery = true)
+    List<RoomUpdateCount> updateInventoryOfRooms(@Param("roomIds") Collection<Long> roomIds,
+                                                 @Param("startDate") LocalDate startDate,
+                                                 @Param("endDate") LocalDate endDate,
+                                                 @Param("closed") Boolean closed,
+                                                 @Param("surgeFactor") BigDecimal surgeFactor);
+
+    // Row of updateInventoryOfRooms
+    record RoomUpdateCount(Long roomId, Long updatedDays) {
+    }
+
+    /**
+     * Lock a room's inventory from a date on (room updates), in date order like the booking locks.
+     * Returns the locked IDs only; no entities are loaded.
+     */
+    @Query("""
+            SELECT i.id
+            FROM Inventory i
+            WHERE i.room.id = :roomId
+              AND i.date >= :fromDate
+            ORDER BY i.date
+            """)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<Long> lockInventoryOfRoomFrom(@Param("roomId") Long roomId, @Param("fromDate") LocalDate fromDate);
+
+    // First day from fromDate on with more rooms booked or reserved than totalCount (null when there is none)
+    @Query("""
+            SELECT MIN(i.date)
+            FROM Inventory i
+            WHERE i.room.id = :roomId
+              AND i.date >= :fromDate
+              AND i.bookedCount + i.reservedCount > :totalCount
+            """)
+    LocalDate findFirstDayAboveTotalCount(@Param("roomId") Long roomId,
+                                          @Param("fromDate") LocalDate fromDate,
+                                          @Param("totalCount") int totalCount);
+
+    // Room's totalCount changed: apply it to all its days from fromDate on
+    @Modifying
+    @Query("""
+            UPDATE Inventory i
+            SET i.totalCount = :totalCount
+            WHERE i.room.id = :roomId
+              AND i.date >= :fromDate
+            """)
+    int updateTotalCountFrom(@Param("roomId") Long roomId,
+                             @Param("fromDate") LocalDate fromDate,
+                             @Param("totalCount") int totalCount);
+
     // Admin can update inventory availability and surge factor
     @Modifying
     @Query("""
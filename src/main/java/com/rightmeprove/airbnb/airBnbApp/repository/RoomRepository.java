@@ -1,10 +1,69 @@
 package com.rightmeprove.airbnb.airBnbApp.repository;
 
+import com.rightmeprove.airbnb.airBnbApp.dto.RoomDto;
 import com.rightmeprove.airbnb.airBnbApp.entity.Room;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface RoomRepository extends JpaRepository<Room,Long> {
 
+    /**
+     * Finds a room together with its hotel and the hotel owner in a single query.
+     * Used by ownership checks (room.getHotel().getOwner()) without a lazy hotel load.
+     */
+    @EntityGraph(attributePaths = {"hotel", "hotel.owner"})
+    Optional<Room> findWithHotelById(Long id);
+
+    /**
+     * Same as findWithHotelById for many rooms at once (bulk inventory updates).
+     */
+    @EntityGraph(attributePaths = {"hotel", "hotel.owner"})
+    List<Room> findWithHotelByIdIn(Collection<Long> ids);
+
+    /**
+     * IDs of the rooms of active hotels, in ID order, after the given ID (keyset batches for the inventory horizon job).
+     */
+    @Query("""
+            SELECT r.id
+            FROM Room r
+            WHERE r.hotel.active = true
+              AND r.id > :afterId
+            ORDER BY r.id
+            """)
+    List<Long> findActiveRoomIdsAfter(@Param("afterId") Long afterId, Limit limit);
+
+    // Next batch of room IDs of a hotel (hotel deletion, with deleteByIds)
+    @Query("SELECT r.id FROM Room r WHERE r.hotel.id = :hotelId")
+    List<Long> findIdsByHotelId(@Param("hotelId") Long hotelId, Limit limit);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "room"))
+    @Query(value = "DELETE FROM room WHERE id IN (:roomIds)", nativeQuery = true)
+    int deleteByIds(@Param("roomIds") Collection<Long> roomIds);
+
+    /**
+     * Read-only projection of all rooms in a hotel, selecting only RoomDto columns.
+     * Cacheable: the query cache entry is invalidated by Hibernate whenever the room table changes.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("""
+            SELECT new com.rightmeprove.airbnb.airBnbApp.dto.RoomDto(
+                r.id, r.type, r.basePrice, r.photos, r.amenities, r.totalCount, r.capacity)
+            FROM Room r
+            WHERE r.hotel.id = :hotelId
+            """)
+    List<RoomDto> findRoomDtosByHotelId(@Param("hotelId") Long hotelId);
 }
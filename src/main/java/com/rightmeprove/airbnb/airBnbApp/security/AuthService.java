@@ -5,16 +5,19 @@ import com.rightmeprove.airbnb.airBnbApp.dto.SignUpRequestDto;
 import com.rightmeprove.airbnb.airBnbApp.dto.UserDto;
 import com.rightmeprove.airbnb.airBnbApp.entity.User;
 import com.rightmeprove.airbnb.airBnbApp.entity.enums.Role;
+import com.rightmeprove.airbnb.airBnbApp.exception.ResourceConflictException;
 import com.rightmeprove.airbnb.airBnbApp.exception.ResourceNotFoundException;
 import com.rightmeprove.airbnb.airBnbApp.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.modelmapper.ModelMapper;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.sql.SQLException;
 import java.util.Set;
 
 /**
@@ -25,6 +28,9 @@ import java.util.Set;
 @RequiredArgsConstructor
 public class AuthService {
 
+    // SQLSTATE reported by Postgres when a unique constraint/index is violated
+    private static final String UNIQUE_VIOLATION_SQL_STATE = "23505";
+
     // Repository for User entity
     private final UserRepository userRepository;
 
@@ -43,16 +49,14 @@ public class AuthService {
     /**
      * Registers a new user
      *
+     * - Issues a single INSERT and relies on the unique index on app_user.email
+     *   instead of a findByEmail pre-check (one round trip, no check-then-insert race).
+     * - A unique violation means the email is taken → ResourceConflictException (409).
+     *
      * @param signUpRequestDto DTO containing name, email, password
      * @return saved user as UserDto
      */
     public UserDto signUp(SignUpRequestDto signUpRequestDto) {
-        // Check if user already exists in DB
-        User user = userRepository.findByEmail(signUpRequestDto.getEmail()).orElse(null);
-        if (user != null) {
-            throw new RuntimeException("User is already present with this email ID.");
-        }
-
         // Map DTO → Entity
         User newUser = modelMapper.map(signUpRequestDto, User.class);
 
@@ -62,8 +66,15 @@ public class AuthService {
         // Hash the password before storing
         newUser.setPassword(passwordEncoder.encode(signUpRequestDto.getPassword()));
 
-        // Save user to DB
-        newUser = userRepository.save(newUser);
+        // Save user to DB (flush so the constraint violation surfaces here, not at commit)
+        try {
+            newUser = userRepository.saveAndFlush(newUser);
+        } catch (DataIntegrityViolationException ex) {
+            if (isUniqueViolation(ex)) {
+                throw new ResourceConflictException("User is already present with this email ID.");
+            }
+            throw ex;
+        }
 
         // Map Entity → DTO for response
         return modelMapper.map(newUser, UserDto.class);
@@ -112,4 +123,14 @@ public class AuthService {
         // Generate new access token
         return jwtService.generateAccessToken(user);
     }
+
+    /** Helper: true if the integrity violation was raised by a unique constraint/index (SQLSTATE 23505) */
+    private boolean isUniqueViolation(DataIntegrityViolationException ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sqlException) {
+                return UNIQUE_VIOLATION_SQL_STATE.equals(sqlException.getSQLState());
+            }
+        }
+        return false;
+    }
 }
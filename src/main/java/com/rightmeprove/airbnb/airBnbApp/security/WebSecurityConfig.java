@@ -1,5 +1,6 @@
 package com.rightmeprove.airbnb.airBnbApp.security;
 
+import jakarta.servlet.DispatcherType;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -56,6 +57,10 @@ public class WebSecurityConfig {
 
                 // 🔐 Authorization rules
                 .authorizeHttpRequests(auth -> auth
+                        // Second dispatch of a streamed response (e.g. booking export): the request itself
+                        // was authorised on its first dispatch, and the JWT filter does not run again
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+
                         // Only Hotel Managers can access /admin/** endpoints
                         .requestMatchers("/admin/**").hasRole("HOTEL_MANAGER")
 
@@ -1,16 +1,21 @@
 package com.rightmeprove.airbnb.airBnbApp.service;
 
 import com.rightmeprove.airbnb.airBnbApp.dto.BookingDto;
+import com.rightmeprove.airbnb.airBnbApp.dto.BookingPageDto;
 import com.rightmeprove.airbnb.airBnbApp.dto.BookingRequestDto;
 import com.rightmeprove.airbnb.airBnbApp.dto.GuestDto;
 import com.rightmeprove.airbnb.airBnbApp.dto.HotelReportDto;
 import com.stripe.model.Event;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
 import java.util.List;
 
 public interface BookingService {
 
+    /** Row formats of the booking export. */
+    enum ExportFormat { CSV, NDJSON }
+
     BookingDto initialiseBooking(BookingRequestDto bookingRequest);
 
     BookingDto addGuests(Long bookingId, List<GuestDto> guestDtoList);
@@ -21,9 +26,12 @@ public interface BookingService {
 
     void cancelBooking(Long bookingId);
 
-    List<BookingDto> getAllBookingsByHotelId(Long hotelId);
+    BookingPageDto getAllBookingsByHotelId(Long hotelId, List<String> statuses, String cursor, int size);
+
+    StreamingResponseBody exportBookingsByHotelId(Long hotelId, LocalDate startDate, LocalDate endDate,
+                                                  ExportFormat format);
 
     HotelReportDto getHotelReport(Long hotelId, LocalDate startDate, LocalDate endDate);
 
-    List<BookingDto> getMyBookings();
+    BookingPageDto getMyBookings(List<String> statuses, String cursor, int size);
 }
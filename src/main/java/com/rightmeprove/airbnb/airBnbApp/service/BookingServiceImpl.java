@@ -1,15 +1,25 @@
 package com.rightmeprove.airbnb.airBnbApp.service;
 
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rightmeprove.airbnb.airBnbApp.cache.PriceCalendarCache;
+import com.rightmeprove.airbnb.airBnbApp.cache.SearchVersion;
 import com.rightmeprove.airbnb.airBnbApp.dto.BookingDto;
+import com.rightmeprove.airbnb.airBnbApp.dto.BookingPageDto;
 import com.rightmeprove.airbnb.airBnbApp.dto.BookingRequestDto;
 import com.rightmeprove.airbnb.airBnbApp.dto.GuestDto;
 import com.rightmeprove.airbnb.airBnbApp.dto.HotelReportDto;
 import com.rightmeprove.airbnb.airBnbApp.entity.*;
 import com.rightmeprove.airbnb.airBnbApp.entity.enums.BookingStatus;
+import com.rightmeprove.airbnb.airBnbApp.exception.BadRequestException;
 import com.rightmeprove.airbnb.airBnbApp.exception.ResourceNotFoundException;
 import com.rightmeprove.airbnb.airBnbApp.exception.UnAuthorisedException;
+import com.rightmeprove.airbnb.airBnbApp.mapper.BookingMapper;
 import com.rightmeprove.airbnb.airBnbApp.repository.*;
 import com.rightmeprove.airbnb.airBnbApp.strategy.PricingService;
+import com.rightmeprove.airbnb.airBnbApp.util.CursorUtils;
 import com.stripe.exception.StripeException;
 import com.stripe.model.Event;
 import com.stripe.model.Refund;
@@ -20,18 +30,28 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
-
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.math.BigDecimal;
-import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
 import java.time.temporal.ChronoUnit;
-import java.util.List;
-import java.util.stream.Collectors;
+import java.util.*;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor // Constructor injection for all final fields
@@ -53,9 +73,27 @@ public class BookingServiceImpl implements BookingService {
     private final RoomRepository roomRepository;
     private final InventoryRepository inventoryRepository;
     private final ModelMapper modelMapper;
+    private final BookingMapper bookingMapper;
     private final GuestRespository guestRespository;
     private final CheckoutService checkoutService;
     private final PricingService pricingService;
+    private final PriceCalendarCache priceCalendarCache;
+    private final SearchVersion searchVersion;
+    private final HotelStatsService hotelStatsService;
+    private final InventoryPartitionService inventoryPartitionService;
+    private final ObjectMapper objectMapper;
+    private final PlatformTransactionManager transactionManager;
+
+    // Max booking IDs bound into a single guest lookup query
+    private static final int GUEST_LOOKUP_CHUNK_SIZE = 1000;
+
+    // Largest page of the booking listings (hotel bookings, my bookings)
+    private static final int MAX_BOOKING_PAGE_SIZE = 100;
+
+    // Booking export: columns (same order and names in CSV and NDJSON) and writer buffer size
+    private static final String EXPORT_CSV_HEADER =
+            "id,bookingStatus,checkInDate,checkOutDate,roomsCount,amount,createdAt,updatedAt\n";
+    private static final int EXPORT_BUFFER_SIZE = 64 * 1024;
 
     @Value("${frontend.url}")
     private String frontendUrl; // Frontend URL for redirect after Stripe checkout
@@ -79,7 +117,16 @@ public class BookingServiceImpl implements BookingService {
                 bookingRequest.getCheckInDate(),
                 bookingRequest.getCheckOutDate());
 
-        // Validate hotel
+        // Validate hotel: the active flag comes from the locked row, not the entity cache, so a
+        // deletion queued on any instance either waits for this booking or is seen here
+        Boolean active = hotelRepository.findActiveForBooking(bookingRequest.getHotelId());
+        if (active == null) {
+            throw new ResourceNotFoundException("Hotel not found with ID: " + bookingRequest.getHotelId());
+        }
+        if (!active) {
+            // Inactive hotels (including ones being deleted) take no new bookings
+            throw new BadRequestException("Hotel with ID: " + bookingRequest.getHotelId() + " is not active");
+        }
         Hotel hotel = hotelRepository.findById(bookingRequest.getHotelId())
                 .orElseThrow(() -> new ResourceNotFoundException(
                         "Hotel not found with ID: " + bookingRequest.getHotelId()));
@@ -113,6 +160,8 @@ public class BookingServiceImpl implements BookingService {
                 bookingRequest.getCheckInDate(),
                 bookingRequest.getCheckOutDate(),
                 bookingRequest.getRoomsCount());
+        priceCalendarCache.invalidateAfterCommit(hotel.getId()); // fewer rooms available on these days
+        searchVersion.bumpAfterCommit();
 
         // Calculate price
         BigDecimal priceForOneRoom = pricingService.calculateTotalPrice(inventoryList);
@@ -132,7 +181,7 @@ public class BookingServiceImpl implements BookingService {
 
         booking = bookingRepository.save(booking);
 
-        return modelMapper.map(booking, BookingDto.class);
+        return bookingMapper.toDto(booking);
     }
 
     /**
@@ -149,7 +198,7 @@ public class BookingServiceImpl implements BookingService {
     public BookingDto addGuests(Long bookingId, List<GuestDto> guestDtoList) {
         log.info("Adding guests for booking with id: {}", bookingId);
 
-        Booking booking = bookingRepository.findById(bookingId)
+        Booking booking = bookingRepository.findWithGuestsById(bookingId)
                 .orElseThrow(() -> new ResourceNotFoundException("Booking not found with id: " + bookingId));
 
         User user = getCurrentUser();
@@ -178,7 +227,7 @@ public class BookingServiceImpl implements BookingService {
         booking.setBookingStatus(BookingStatus.GUESTS_ADDED);
         booking = bookingRepository.save(booking);
 
-        return modelMapper.map(booking, BookingDto.class);
+        return bookingMapper.toDto(booking);
     }
 
     /**
@@ -192,7 +241,8 @@ public class BookingServiceImpl implements BookingService {
     @Override
     @Transactional
     public String initiatePayments(Long bookingId) {
-        Booking booking = bookingRepository.findById(bookingId)
+        // Hotel and room are needed for the checkout line item, so load them up front
+        Booking booking = bookingRepository.findWithHotelAndRoomById(bookingId)
                 .orElseThrow(() -> new ResourceNotFoundException("Booking not found with id: " + bookingId));
 
         User user = getCurrentUser();
@@ -219,6 +269,9 @@ public class BookingServiceImpl implements BookingService {
      * Capture Stripe payment event.
      * - Marks booking as CONFIRMED
      * - Updates inventory (decrease reservedCount, increase bookedCount)
+     * - Idempotent: Stripe may deliver the same event more than once (even concurrently). The booking
+     *   row is locked, and an already confirmed booking is left alone, so its rooms are moved from
+     *   reserved to booked and counted in the rollup exactly once.
      */
     @Override
     @Transactional
@@ -228,11 +281,18 @@ public class BookingServiceImpl implements BookingService {
             if (session == null) return;
 
             String sessionId = session.getId();
-            Booking booking = bookingRepository.findByPaymentSessionId(sessionId)
+            Booking booking = bookingRepository.findAndLockByPaymentSessionId(sessionId)
                     .orElseThrow(() -> new ResourceNotFoundException("Booking not found for session ID: "+sessionId));
 
+            // Redelivered event: the first delivery already confirmed the booking and its inventory
+            if (booking.getBookingStatus() == BookingStatus.CONFIRMED) {
+                log.info("Booking {} is already confirmed, ignoring redelivered event {}", booking.getId(), event.getId());
+                return;
+            }
+
             booking.setBookingStatus(BookingStatus.CONFIRMED);
             bookingRepository.save(booking);
+            hotelStatsService.recordConfirmed(booking);
 
             // Lock and confirm inventory
             inventoryRepository.findAndLockReservedInventory(
@@ -241,11 +301,16 @@ public class BookingServiceImpl implements BookingService {
                     booking.getCheckOutDate(),
                     booking.getRoomsCount());
 
-            inventoryRepository.confirmBooking(
+            int days = inventoryRepository.confirmBooking(
                     booking.getRoom().getId(),
                     booking.getCheckInDate(),
                     booking.getCheckOutDate(),
                     booking.getRoomsCount());
+            if (days != stayDays(booking)) {
+                // The payment is taken either way (Stripe would only retry the event): leave it for follow-up
+                log.error("Confirmed booking {} moved {} of its {} inventory days from reserved to booked",
+                        booking.getId(), days, stayDays(booking));
+            }
 
             log.info("Successfully Confirmed the booking for booking ID: {}", booking.getId());
         } else {
@@ -276,9 +341,14 @@ public class BookingServiceImpl implements BookingService {
         if (booking.getBookingStatus() != BookingStatus.CONFIRMED) {
             throw new IllegalStateException("Only confirmed bookings can be cancelled");
         }
+        if (booking.getCheckInDate().isBefore(inventoryPartitionService.firstRetainedDay())) {
+            // Its inventory months were moved to the archive schema: there is nothing left to give back
+            throw new BadRequestException("Booking with ID: " + bookingId + " is too old to be cancelled");
+        }
 
         booking.setBookingStatus(BookingStatus.CANCELLED);
         bookingRepository.save(booking);
+        hotelStatsService.recordCancelled(booking);
 
         // Lock inventory and cancel
         inventoryRepository.findAndLockReservedInventory(
@@ -288,12 +358,18 @@ public class BookingServiceImpl implements BookingService {
                 booking.getRoomsCount()
         );
 
-        inventoryRepository.cancelBooking(
+        int days = inventoryRepository.cancelBooking(
                 booking.getRoom().getId(),
                 booking.getCheckInDate(),
                 booking.getCheckOutDate(),
                 booking.getRoomsCount()
         );
+        if (days != stayDays(booking)) {
+            // Closed days keep their booked rooms until they are opened again
+            log.warn("Cancelled booking {} released {} of its {} inventory days", bookingId, days, stayDays(booking));
+        }
+        priceCalendarCache.invalidateAfterCommit(booking.getHotel().getId()); // rooms available again
+        searchVersion.bumpAfterCommit();
 
         // Refund via Stripe
         try {
@@ -309,10 +385,15 @@ public class BookingServiceImpl implements BookingService {
     }
 
     /**
-     * Get all bookings for a specific hotel (only for hotel owner).
+     * Get one page of bookings for a specific hotel (only for hotel owner), newest first.
+     * Optional status filter; pass the nextCursor of a page to get the following one.
      */
     @Override
-    public List<BookingDto> getAllBookingsByHotelId(Long hotelId) {
+    public BookingPageDto getAllBookingsByHotelId(Long hotelId, List<String> statuses, String cursor, int size) {
+        Collection<BookingStatus> statusFilter = parseStatuses(statuses);
+        BookingCursor after = parseBookingCursor(cursor);
+        validatePageSize(size);
+
         Hotel hotel = hotelRepository.findById(hotelId)
                 .orElseThrow(() -> new ResourceNotFoundException("Hotel not found with ID: " + hotelId));
 
@@ -322,11 +403,101 @@ public class BookingServiceImpl implements BookingService {
             throw new AccessDeniedException("You are not the owner of this Hotel with ID: "+hotelId);
         }
 
-        List<Booking> bookings = bookingRepository.findByHotel(hotel);
+        // Projection query: only BookingDto columns, no Booking entities hydrated; one extra row tells if there is a next page
+        List<BookingDto> bookings = bookingRepository.findBookingDtoPageByHotelId(
+                hotelId, statusFilter, after.createdAt(), after.id(), Limit.of(size + 1));
+
+        return toBookingPage(bookings, size);
+    }
+
+    /**
+     * Export the bookings of a hotel as CSV or NDJSON, optionally only those created between
+     * startDate and endDate (both included, either may be null).
+     *
+     * The owner check runs right away. The returned body runs later on an async request thread:
+     * it opens its own read-only transaction, reads bookings through a server-side cursor and
+     * writes each row straight to the response, so memory use does not grow with the number of
+     * bookings. Guests are not part of the export.
+     */
+    @Override
+    public StreamingResponseBody exportBookingsByHotelId(Long hotelId, LocalDate startDate, LocalDate endDate,
+                                                         ExportFormat format) {
+        if (startDate != null && endDate != null && endDate.isBefore(startDate)) {
+            throw new BadRequestException("endDate must not be before startDate");
+        }
+
+        Hotel hotel = hotelRepository.findById(hotelId)
+                .orElseThrow(() -> new ResourceNotFoundException("Hotel not found with ID: "+hotelId));
+
+        User user = getCurrentUser();
+        if (!user.equals(hotel.getOwner())) {
+            throw new AccessDeniedException("You are not the owner of this Hotel with ID: "+hotelId);
+        }
+
+        LocalDateTime from = startDate == null ? null : startDate.atStartOfDay();
+        LocalDateTime to = endDate == null ? null : endDate.plusDays(1).atStartOfDay();
+
+        TransactionTemplate readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+
+        return outputStream -> {
+            long start = System.nanoTime();
+            Long rows = readOnlyTransaction.execute(status -> {
+                try (Stream<BookingDto> bookings = bookingRepository.streamBookingDtosByHotelId(hotelId, from, to)) {
+                    return format == ExportFormat.CSV
+                            ? writeCsv(bookings, outputStream)
+                            : writeNdjson(bookings, outputStream);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e); // e.g. the client went away
+                }
+            });
+            log.info("Exported {} bookings of hotel {} as {} in {} ms",
+                    rows, hotelId, format, (System.nanoTime() - start) / 1_000_000);
+        };
+    }
+
+    /** Helper: one CSV line per booking (all values are numbers, dates or enum names, so nothing needs quoting). */
+    private long writeCsv(Stream<BookingDto> bookings, OutputStream outputStream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), EXPORT_BUFFER_SIZE);
+        writer.write(EXPORT_CSV_HEADER);
+        long rows = 0;
+        for (Iterator<BookingDto> it = bookings.iterator(); it.hasNext(); rows++) {
+            BookingDto booking = it.next();
+            writer.append(String.valueOf(booking.getId())).append(',')
+                    .append(booking.getBookingStatus().name()).append(',')
+                    .append(booking.getCheckInDate().toString()).append(',')
+                    .append(booking.getCheckOutDate().toString()).append(',')
+                    .append(String.valueOf(booking.getRoomsCount())).append(',')
+                    .append(booking.getAmount().toPlainString()).append(',')
+                    .append(Objects.toString(booking.getCreatedAt(), "")).append(',')
+                    .append(Objects.toString(booking.getUpdatedAt(), "")).append('\n');
+        }
+        writer.flush();
+        return rows;
+    }
 
-        return bookings.stream()
-                .map(booking -> modelMapper.map(booking, BookingDto.class))
-                .collect(Collectors.toList());
+    /** Helper: one JSON object per line per booking, written with the streaming generator (no tree, no list). */
+    private long writeNdjson(Stream<BookingDto> bookings, OutputStream outputStream) throws IOException {
+        long rows = 0;
+        try (JsonGenerator json = objectMapper.getFactory().createGenerator(outputStream, JsonEncoding.UTF8)) {
+            json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET); // the container closes the response
+            json.setPrettyPrinter(new MinimalPrettyPrinter(""));   // no separator between root values: lines end with \n
+            for (Iterator<BookingDto> it = bookings.iterator(); it.hasNext(); rows++) {
+                BookingDto booking = it.next();
+                json.writeStartObject();
+                json.writeNumberField("id", booking.getId());
+                json.writeStringField("bookingStatus", booking.getBookingStatus().name());
+                json.writeStringField("checkInDate", booking.getCheckInDate().toString());
+                json.writeStringField("checkOutDate", booking.getCheckOutDate().toString());
+                json.writeNumberField("roomsCount", booking.getRoomsCount());
+                json.writeNumberField("amount", booking.getAmount());
+                json.writeStringField("createdAt", Objects.toString(booking.getCreatedAt(), null));
+                json.writeStringField("updatedAt", Objects.toString(booking.getUpdatedAt(), null));
+                json.writeEndObject();
+                json.writeRaw('\n');
+            }
+        }
+        return rows;
     }
 
     /**
@@ -335,9 +506,16 @@ public class BookingServiceImpl implements BookingService {
      * - Total confirmed bookings
      * - Total revenue from confirmed bookings
      * - Average revenue per confirmed booking
+     * - Cancellations, room-nights sold, occupancy, ADR and RevPAR
+     * - A per-day breakdown of all of the above
+     * Read from the HotelDailyStats rollup: one row per day, whatever the number of bookings.
      */
     @Override
     public HotelReportDto getHotelReport(Long hotelId, LocalDate startDate, LocalDate endDate) {
+        if (endDate.isBefore(startDate)) {
+            throw new BadRequestException("endDate must not be before startDate");
+        }
+
         Hotel hotel = hotelRepository.findById(hotelId)
                 .orElseThrow(() -> new ResourceNotFoundException("Hotel not found with ID: "+hotelId));
 
@@ -346,36 +524,103 @@ public class BookingServiceImpl implements BookingService {
             throw new AccessDeniedException("You are not the owner of this Hotel with ID: "+hotelId);
         }
 
-        LocalDateTime startDateTime = startDate.atStartOfDay();
-        LocalDateTime endDateTime = endDate.atTime(LocalTime.MAX);
+        return hotelStatsService.getReport(hotelId, startDate, endDate);
+    }
+
+    /**
+     * Get one page of bookings of the logged-in user, newest first (same filter and cursor as the hotel listing)
+     */
+    @Override
+    public BookingPageDto getMyBookings(List<String> statuses, String cursor, int size) {
+        Collection<BookingStatus> statusFilter = parseStatuses(statuses);
+        BookingCursor after = parseBookingCursor(cursor);
+        validatePageSize(size);
+
+        User user = getCurrentUser();
+        List<BookingDto> bookings = bookingRepository.findBookingDtoPageByUserId(
+                user.getId(), statusFilter, after.createdAt(), after.id(), Limit.of(size + 1));
+
+        return toBookingPage(bookings, size);
+    }
 
-        List<Booking> bookings = bookingRepository.findByHotelAndCreatedAtBetween(hotel, startDateTime, endDateTime);
+    /** Position after the last booking of a page (both null: first page). */
+    private record BookingCursor(LocalDateTime createdAt, Long id) {
+    }
 
-        Long totalConfirmedBookings = bookings.stream()
-                .filter(booking -> booking.getBookingStatus() == BookingStatus.CONFIRMED)
-                .count();
+    /**
+     * Helper: trim the extra row fetched to detect a next page, attach guests of the page
+     * and encode the cursor from its last booking.
+     */
+    private BookingPageDto toBookingPage(List<BookingDto> rows, int size) {
+        boolean hasNext = rows.size() > size;
+        List<BookingDto> bookings = hasNext ? new ArrayList<>(rows.subList(0, size)) : rows;
+        attachGuests(bookings);
+
+        String nextCursor = null;
+        if (hasNext) {
+            BookingDto last = bookings.get(bookings.size() - 1);
+            nextCursor = CursorUtils.encode(last.getCreatedAt(), last.getId());
+        }
+        return new BookingPageDto(bookings, nextCursor);
+    }
 
-        BigDecimal totalRevenueOfConfirmedBookings = bookings.stream()
-                .filter(booking -> booking.getBookingStatus() == BookingStatus.CONFIRMED)
-                .map(Booking::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    private BookingCursor parseBookingCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return new BookingCursor(null, null);
+        }
+        String[] position = CursorUtils.decode(cursor, 2);
+        try {
+            return new BookingCursor(LocalDateTime.parse(position[0]), Long.parseLong(position[1]));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
 
-        BigDecimal avgRevenue = totalConfirmedBookings == 0 ? BigDecimal.ZERO :
-                totalRevenueOfConfirmedBookings.divide(BigDecimal.valueOf(totalConfirmedBookings), RoundingMode.HALF_UP);
+    /** Helper: status names (any case) to statuses; none means all statuses. */
+    private Collection<BookingStatus> parseStatuses(List<String> statuses) {
+        if (statuses == null || statuses.isEmpty()) {
+            return EnumSet.allOf(BookingStatus.class);
+        }
+        EnumSet<BookingStatus> result = EnumSet.noneOf(BookingStatus.class);
+        for (String status : statuses) {
+            try {
+                result.add(BookingStatus.valueOf(status.trim().toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException e) {
+                throw new BadRequestException("Unknown booking status: " + status);
+            }
+        }
+        return result;
+    }
 
-        return new HotelReportDto(totalConfirmedBookings, totalRevenueOfConfirmedBookings, avgRevenue);
+    private void validatePageSize(int size) {
+        if (size < 1 || size > MAX_BOOKING_PAGE_SIZE) {
+            throw new BadRequestException("size must be between 1 and " + MAX_BOOKING_PAGE_SIZE);
+        }
     }
 
     /**
-     * Get all bookings of the logged-in user
+     * Helper: load the guests of the given bookings with one query per chunk of IDs
+     * and attach them to the booking DTOs.
      */
-    @Override
-    public List<BookingDto> getMyBookings() {
-        User user = getCurrentUser();
-        return bookingRepository.findByUser(user)
-                .stream()
-                .map(booking -> modelMapper.map(booking, BookingDto.class))
-                .collect(Collectors.toList());
+    private void attachGuests(List<BookingDto> bookings) {
+        Map<Long, BookingDto> bookingsById = new HashMap<>();
+        for (BookingDto booking : bookings) {
+            booking.setGuests(new HashSet<>());
+            bookingsById.put(booking.getId(), booking);
+        }
+
+        List<Long> bookingIds = new ArrayList<>(bookingsById.keySet());
+        for (int from = 0; from < bookingIds.size(); from += GUEST_LOOKUP_CHUNK_SIZE) {
+            List<Long> chunk = bookingIds.subList(from, Math.min(from + GUEST_LOOKUP_CHUNK_SIZE, bookingIds.size()));
+            for (BookingRepository.BookingGuest row : bookingRepository.findGuestsByBookingIds(chunk)) {
+                bookingsById.get(row.getBookingId()).getGuests().add(bookingMapper.toGuestDto(row.getGuest()));
+            }
+        }
+    }
+
+    /** Helper: number of inventory days of the stay (check-out day included, like the inventory updates) */
+    private static long stayDays(Booking booking) {
+        return ChronoUnit.DAYS.between(booking.getCheckInDate(), booking.getCheckOutDate()) + 1;
     }
 
     /** Helper: check if booking has expired (>10 minutes since creation) */
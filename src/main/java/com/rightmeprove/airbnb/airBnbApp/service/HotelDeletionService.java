@@ -0,0 +1,291 @@
+package com.rightmeprove.airbnb.airBnbApp.service;
+
+import com.rightmeprove.airbnb.airBnbApp.cache.HotelCacheEvictor;
+import com.rightmeprove.airbnb.airBnbApp.cache.HotelFacetIndex;
+import com.rightmeprove.airbnb.airBnbApp.dto.HotelDeletionJobDto;
+import com.rightmeprove.airbnb.airBnbApp.entity.Hotel;
+import com.rightmeprove.airbnb.airBnbApp.entity.HotelDeletionJob;
+import com.rightmeprove.airbnb.airBnbApp.entity.User;
+import com.rightmeprove.airbnb.airBnbApp.entity.enums.HotelDeletionStatus;
+import com.rightmeprove.airbnb.airBnbApp.exception.ResourceConflictException;
+import com.rightmeprove.airbnb.airBnbApp.exception.ResourceNotFoundException;
+import com.rightmeprove.airbnb.airBnbApp.exception.UnAuthorisedException;
+import com.rightmeprove.airbnb.airBnbApp.repository.*;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static com.rightmeprove.airbnb.airBnbApp.util.TransactionUtils.runAfterCommit;
+
+/**
+ * Deletes hotels in the background.
+ *
+ * - The request only deactivates the hotel (it leaves search and the facet indexes at once)
+ *   and records a HotelDeletionJob; the caller gets the job back and follows it by hotel ID.
+ * - A single worker thread then removes the hotel's rows with bulk DELETE statements, each
+ *   batch in its own short transaction together with the job's counters:
+ *   inventory, then min prices one month at a time (one partition per statement), then daily stats,
+ *   then bookings (moved to the archive schema) and rooms in ID batches, then the hotel itself.
+ * - Inventory goes first: min prices and stats are derived from it, so the pricing and stats jobs
+ *   (which skip hotels being deleted anyway) have nothing left to re-create them from. The last
+ *   transaction locks the hotel row and clears both again before removing it.
+ * - Nothing is loaded as entities, and no lock is held for more than one batch.
+ * - Every step is safe to repeat: an interrupted job (restart) is resumed at startup,
+ *   a failed one when the hotel is deleted again.
+ * - Hotels with open bookings cannot be deleted: confirmed stays that are not over yet, reservations
+ *   still within their hold and bookings whose Stripe checkout may still be paid. The remaining
+ *   abandoned ones are marked EXPIRED, and all bookings are moved to the archive schema rather
+ *   than deleted, so amounts and payment sessions stay available for refunds and accounting.
+ */
+@Service
+@Slf4j
+public class HotelDeletionService {
+
+    private static final Set<HotelDeletionStatus> UNFINISHED = Set.of(HotelDeletionStatus.PENDING, HotelDeletionStatus.RUNNING);
+
+    // How long a reservation holds its rooms (BookingServiceImpl.hasBookingExpired)
+    private static final Duration RESERVATION_HOLD = Duration.ofMinutes(10);
+
+    // Lifetime of a Stripe Checkout session (Stripe's default): a payment can complete until then
+    private static final Duration CHECKOUT_SESSION_LIFETIME = Duration.ofHours(24);
+
+    private final HotelDeletionJobRepository hotelDeletionJobRepository;
+    private final HotelRepository hotelRepository;
+    private final HotelDailyStatsRepository hotelDailyStatsRepository;
+    private final HotelMinPriceRepository hotelMinPriceRepository;
+    private final InventoryRepository inventoryRepository;
+    private final BookingRepository bookingRepository;
+    private final RoomRepository roomRepository;
+    private final HotelCacheEvictor hotelCacheEvictor;
+    private final HotelFacetIndex hotelFacetIndex;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    // One deletion at a time: large hotels are spread over time instead of competing for the database
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "hotel-deletion");
+        thread.setDaemon(true); // an interrupted job is resumed on the next start
+        return thread;
+    });
+
+    public HotelDeletionService(HotelDeletionJobRepository hotelDeletionJobRepository,
+                                HotelRepository hotelRepository,
+                                HotelDailyStatsRepository hotelDailyStatsRepository,
+                                HotelMinPriceRepository hotelMinPriceRepository,
+                                InventoryRepository inventoryRepository,
+                                BookingRepository bookingRepository,
+                                RoomRepository roomRepository,
+                                HotelCacheEvictor hotelCacheEvictor,
+                                HotelFacetIndex hotelFacetIndex,
+                                TransactionTemplate transactionTemplate,
+                                @Value("${hotel.deletion.batch-size:5000}") int batchSize) {
+        this.hotelDeletionJobRepository = hotelDeletionJobRepository;
+        this.hotelRepository = hotelRepository;
+        this.hotelDailyStatsRepository = hotelDailyStatsRepository;
+        this.hotelMinPriceRepository = hotelMinPriceRepository;
+        this.inventoryRepository = inventoryRepository;
+        this.bookingRepository = bookingRepository;
+        this.roomRepository = roomRepository;
+        this.hotelCacheEvictor = hotelCacheEvictor;
+        this.hotelFacetIndex = hotelFacetIndex;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Deactivate the hotel and queue its deletion; joins the caller's transaction,
+     * the worker starts once it commits. A deletion already under way is returned as is.
+     * The hotel row is locked first: bookings starting meanwhile (which read the active flag
+     * FOR SHARE) either commit before the open-booking check or see the hotel inactive.
+     */
+    public HotelDeletionJobDto startDeletion(Hotel hotel) {
+        Long hotelId = hotel.getId();
+        hotelRepository.lockForDeletion(hotelId);
+        HotelDeletionJob job = hotelDeletionJobRepository.findFirstByHotelIdOrderByIdDesc(hotelId).orElse(null);
+        if (job != null && UNFINISHED.contains(job.getStatus())) {
+            return toDto(job);
+        }
+        LocalDateTime now = LocalDateTime.now();
+        if (bookingRepository.existsOpenByHotelId(hotelId, now.toLocalDate(),
+                now.minus(RESERVATION_HOLD), now.minus(CHECKOUT_SESSION_LIFETIME))) {
+            throw new ResourceConflictException("Hotel with ID: " + hotelId
+                    + " has bookings that are not over yet (upcoming stays, reservations or payments in progress)");
+        }
+        bookingRepository.expireAbandonedByHotelId(hotelId, now);
+
+        hotel.setActive(false);
+        hotelRepository.save(hotel);
+
+        if (job == null || job.getStatus() != HotelDeletionStatus.FAILED) {
+            job = new HotelDeletionJob(hotelId, hotel.getOwner().getId());
+        } else {
+            // Retry of a failed deletion: the counters carry on
+            job.setStatus(HotelDeletionStatus.PENDING);
+            job.setError(null);
+        }
+        job = hotelDeletionJobRepository.save(job);
+
+        Long jobId = job.getId();
+        runAfterCommit(() -> executor.submit(() -> run(jobId)));
+        log.info("Queued deletion of hotel {} (job {})", hotelId, jobId);
+        return toDto(job);
+    }
+
+    /**
+     * Latest deletion of a hotel. Only the owner who deleted it can see it
+     * (the hotel itself may already be gone, so ownership is checked on the job).
+     */
+    public HotelDeletionJobDto getLatestJob(Long hotelId, User user) {
+        HotelDeletionJob job = hotelDeletionJobRepository.findFirstByHotelIdOrderByIdDesc(hotelId)
+                .orElseThrow(() -> new ResourceNotFoundException("No deletion was found for hotel with ID: " + hotelId));
+        if (!user.getId().equals(job.getOwnerId())) {
+            throw new UnAuthorisedException("This user does not own this hotel with id: " + hotelId);
+        }
+        return toDto(job);
+    }
+
+    /** Reject changes (activation, edits, new rooms) to a hotel that is being deleted. */
+    public void checkNotBeingDeleted(Long hotelId) {
+        if (isBeingDeleted(hotelId)) {
+            throw new ResourceConflictException("Hotel with ID: " + hotelId + " is being deleted");
+        }
+    }
+
+    /** Whether the hotel has a queued or running deletion (batch jobs leave such hotels alone). */
+    public boolean isBeingDeleted(Long hotelId) {
+        return hotelDeletionJobRepository.existsByHotelIdAndStatusIn(hotelId, UNFINISHED);
+    }
+
+    /** Resume the deletions a restart interrupted. */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeUnfinished() {
+        for (HotelDeletionJob job : hotelDeletionJobRepository.findByStatusInOrderById(UNFINISHED)) {
+            log.info("Resuming deletion of hotel {} (job {})", job.getHotelId(), job.getId());
+            Long jobId = job.getId();
+            executor.submit(() -> run(jobId));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /** Worker: delete everything that belongs to the job's hotel, then the hotel. */
+    private void run(Long jobId) {
+        long start = System.nanoTime();
+        HotelDeletionJob job = transactionTemplate.execute(status -> {
+            HotelDeletionJob running = hotelDeletionJobRepository.findById(jobId).orElseThrow();
+            running.setStatus(HotelDeletionStatus.RUNNING);
+            return running;
+        });
+        Long hotelId = job.getHotelId();
+
+        try {
+            deleteByMonth(jobId, inventoryRepository.findDateSpanByHotelId(hotelId),
+                    (from, to) -> inventoryRepository.deleteByHotelIdAndDateRange(hotelId, from, to),
+                    (deletion, rows) -> deletion.setInventoryDeleted(deletion.getInventoryDeleted() + rows));
+
+            deleteByMonth(jobId, hotelMinPriceRepository.findDateSpanByHotelId(hotelId),
+                    (from, to) -> hotelMinPriceRepository.deleteByHotelIdAndDateRange(hotelId, from, to),
+                    (deletion, rows) -> deletion.setMinPricesDeleted(deletion.getMinPricesDeleted() + rows));
+
+            // One row per day: small enough for a single statement
+            transactionTemplate.executeWithoutResult(status -> hotelDailyStatsRepository.deleteAllByHotelId(hotelId));
+
+            // The hotel is inactive and its inventory gone, so no booking can be started for it any more
+            deleteByIds(jobId, () -> bookingRepository.findIdsByHotelId(hotelId, Limit.of(batchSize)),
+                    ids -> {
+                        bookingRepository.archiveGuestLinksByBookingIds(ids);
+                        return bookingRepository.archiveByIds(ids);
+                    },
+                    (deletion, rows) -> deletion.setBookingsArchived(deletion.getBookingsArchived() + rows));
+
+            deleteByIds(jobId, () -> roomRepository.findIdsByHotelId(hotelId, Limit.of(batchSize)),
+                    roomRepository::deleteByIds,
+                    (deletion, rows) -> deletion.setRoomsDeleted(deletion.getRoomsDeleted() + rows));
+
+            transactionTemplate.executeWithoutResult(status -> {
+                // Blocks new rows referencing the hotel until commit; a pricing or stats run that
+                // started before the job was queued may still have written some, so clear them again
+                hotelRepository.lockForDeletion(hotelId);
+                int lateMinPrices = hotelMinPriceRepository.deleteAllByHotelId(hotelId);
+                hotelDailyStatsRepository.deleteAllByHotelId(hotelId);
+                hotelRepository.deleteById(hotelId);
+                HotelDeletionJob completed = hotelDeletionJobRepository.findById(jobId).orElseThrow();
+                completed.setMinPricesDeleted(completed.getMinPricesDeleted() + lateMinPrices);
+                completed.setStatus(HotelDeletionStatus.COMPLETED);
+                completed.setCompletedAt(LocalDateTime.now());
+                hotelCacheEvictor.evictHotel(hotelId);
+                hotelFacetIndex.refreshAfterCommit(hotelId);
+            });
+            log.info("Deleted hotel {} (job {}) in {} ms", hotelId, jobId, (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            log.error("Deletion of hotel {} (job {}) failed", hotelId, jobId, e);
+            transactionTemplate.executeWithoutResult(status -> {
+                HotelDeletionJob failed = hotelDeletionJobRepository.findById(jobId).orElseThrow();
+                failed.setStatus(HotelDeletionStatus.FAILED);
+                failed.setError(String.valueOf(e.getMessage()));
+            });
+        }
+    }
+
+    /** Delete month by month over the span (one partition per statement), counting the rows on the job. */
+    private void deleteByMonth(Long jobId, InventoryRepository.DateSpan span,
+                               MonthDelete delete, BiConsumer<HotelDeletionJob, Integer> progress) {
+        if (span.firstDate() == null) {
+            return;
+        }
+        for (LocalDate month = span.firstDate().withDayOfMonth(1); !month.isAfter(span.lastDate()); month = month.plusMonths(1)) {
+            LocalDate from = month;
+            transactionTemplate.executeWithoutResult(status -> {
+                int rows = delete.delete(from, from.plusMonths(1));
+                progress.accept(hotelDeletionJobRepository.findById(jobId).orElseThrow(), rows);
+            });
+        }
+    }
+
+    /** Delete batches of IDs until none are left, counting the rows on the job. */
+    private void deleteByIds(Long jobId, Supplier<List<Long>> nextBatch,
+                             Function<List<Long>, Integer> delete, BiConsumer<HotelDeletionJob, Integer> progress) {
+        boolean more = true;
+        while (more) {
+            more = Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+                List<Long> ids = nextBatch.get();
+                if (ids.isEmpty()) {
+                    return false;
+                }
+                progress.accept(hotelDeletionJobRepository.findById(jobId).orElseThrow(), delete.apply(ids));
+                return true;
+            }));
+        }
+    }
+
+    /** Bulk delete of [fromDate, toDate); returns the rows deleted. */
+    @FunctionalInterface
+    private interface MonthDelete {
+        int delete(LocalDate fromDate, LocalDate toDate);
+    }
+
+    private static HotelDeletionJobDto toDto(HotelDeletionJob job) {
+        return new HotelDeletionJobDto(job.getId(), job.getHotelId(), job.getStatus(),
+                job.getMinPricesDeleted(), job.getInventoryDeleted(), job.getBookingsArchived(), job.getRoomsDeleted(),
+                job.getError(), job.getCreatedAt(), job.getUpdatedAt(), job.getCompletedAt());
+    }
+}
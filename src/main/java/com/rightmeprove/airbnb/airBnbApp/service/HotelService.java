@@ -1,5 +1,6 @@
 package com.rightmeprove.airbnb.airBnbApp.service;
 
+import com.rightmeprove.airbnb.airBnbApp.dto.HotelDeletionJobDto;
 import com.rightmeprove.airbnb.airBnbApp.dto.HotelDto;
 import com.rightmeprove.airbnb.airBnbApp.dto.HotelInfoDto;
 
@@ -13,7 +14,9 @@ public interface HotelService {
 
     HotelDto updateHotelById(Long id,HotelDto hotelDto);
 
-    void deleteHotelById(Long id);
+    HotelDeletionJobDto deleteHotelById(Long id);
+
+    HotelDeletionJobDto getHotelDeletion(Long hotelId);
 
     void activateHotel(Long hotelId);
 
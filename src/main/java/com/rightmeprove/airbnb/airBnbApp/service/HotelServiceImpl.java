@@ -1,5 +1,8 @@
 package com.rightmeprove.airbnb.airBnbApp.service;
 
+import com.rightmeprove.airbnb.airBnbApp.cache.HotelCacheEvictor;
+import com.rightmeprove.airbnb.airBnbApp.cache.HotelFacetIndex;
+import com.rightmeprove.airbnb.airBnbApp.dto.HotelDeletionJobDto;
 import com.rightmeprove.airbnb.airBnbApp.dto.HotelDto;
 import com.rightmeprove.airbnb.airBnbApp.dto.HotelInfoDto;
 import com.rightmeprove.airbnb.airBnbApp.dto.RoomDto;
@@ -8,17 +11,18 @@ import com.rightmeprove.airbnb.airBnbApp.entity.Room;
 import com.rightmeprove.airbnb.airBnbApp.entity.User;
 import com.rightmeprove.airbnb.airBnbApp.exception.ResourceNotFoundException;
 import com.rightmeprove.airbnb.airBnbApp.exception.UnAuthorisedException;
+import com.rightmeprove.airbnb.airBnbApp.mapper.HotelMapper;
+import com.rightmeprove.airbnb.airBnbApp.mapper.RoomMapper;
 import com.rightmeprove.airbnb.airBnbApp.repository.HotelRepository;
-import com.rightmeprove.airbnb.airBnbApp.repository.RoomRepository;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.modelmapper.ModelMapper;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Objects;
 
 import static com.rightmeprove.airbnb.airBnbApp.util.AppUtils.getCurrentUser;
 
@@ -28,9 +32,12 @@ import static com.rightmeprove.airbnb.airBnbApp.util.AppUtils.getCurrentUser;
 public class HotelServiceImpl implements HotelService {
 
     private final HotelRepository hotelRepository;
-    private final ModelMapper modelMapper;
+    private final HotelMapper hotelMapper;
+    private final RoomMapper roomMapper;
     private final InventoryService inventoryService;
-    private final RoomRepository roomRepository;
+    private final HotelCacheEvictor hotelCacheEvictor;
+    private final HotelFacetIndex hotelFacetIndex;
+    private final HotelDeletionService hotelDeletionService;
 
     /**
      * Create a new hotel.
@@ -41,7 +48,7 @@ public class HotelServiceImpl implements HotelService {
     @Override
     public HotelDto createNewHotel(HotelDto hotelDto) {
         log.info("Creating new hotel info with name: {}", hotelDto.getName());
-        Hotel hotel = modelMapper.map(hotelDto, Hotel.class);
+        Hotel hotel = hotelMapper.toEntity(hotelDto);
         hotel.setActive(false); // inactive by default
 
         // Set owner to currently logged-in user
@@ -49,8 +56,9 @@ public class HotelServiceImpl implements HotelService {
         hotel.setOwner(user);
 
         hotel = hotelRepository.save(hotel);
+        hotelFacetIndex.refreshAfterCommit(hotel.getId());
         log.info("Created a new hotel with ID: {}", hotel.getId());
-        return modelMapper.map(hotel, HotelDto.class);
+        return hotelMapper.toDto(hotel);
     }
 
     /**
@@ -69,7 +77,7 @@ public class HotelServiceImpl implements HotelService {
             throw new UnAuthorisedException("This user does not own this hotel with id: " + id);
         }
 
-        return modelMapper.map(hotel, HotelDto.class);
+        return hotelMapper.toDto(hotel);
     }
 
     /**
@@ -89,20 +97,24 @@ public class HotelServiceImpl implements HotelService {
             throw new UnAuthorisedException("This user does not own this hotel with id: " + id);
         }
 
-        modelMapper.map(hotelDto, hotel); // update fields
-        hotel.setId(id); // ensure ID remains same
+        hotelDeletionService.checkNotBeingDeleted(id);
+
+        hotelMapper.updateEntity(hotelDto, hotel); // update fields (ID stays the same)
         hotel = hotelRepository.save(hotel);
-        return modelMapper.map(hotel, HotelDto.class);
+        hotelCacheEvictor.evictHotel(id);
+        hotelFacetIndex.refreshAfterCommit(id);
+        return hotelMapper.toDto(hotel);
     }
 
     /**
      * Delete a hotel.
      * - Only owner can delete
-     * - Deletes all rooms and their inventory first
+     * - Deactivates the hotel right away; its rows are deleted in the background (HotelDeletionService)
+     * - Returns the deletion job, to be followed with getHotelDeletion
      */
     @Override
     @Transactional
-    public void deleteHotelById(Long id) {
+    public HotelDeletionJobDto deleteHotelById(Long id) {
         Hotel hotel = hotelRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Hotel was not found with ID: " + id));
 
@@ -111,25 +123,31 @@ public class HotelServiceImpl implements HotelService {
             throw new UnAuthorisedException("This user does not own this hotel with id: " + id);
         }
 
-        // Delete all rooms and associated inventories
-        for (Room room : hotel.getRooms()) {
-            inventoryService.deleteAllInventories(room);
-            roomRepository.deleteById(room.getId());
-        }
+        HotelDeletionJobDto job = hotelDeletionService.startDeletion(hotel);
+        hotelCacheEvictor.evictHotel(id);
+        hotelFacetIndex.refreshAfterCommit(id);
+        return job;
+    }
 
-        hotelRepository.deleteById(id);
+    /**
+     * Progress of a hotel's deletion.
+     * - Only the owner who deleted the hotel can follow it
+     */
+    @Override
+    public HotelDeletionJobDto getHotelDeletion(Long hotelId) {
+        return hotelDeletionService.getLatestJob(hotelId, getCurrentUser());
     }
 
     /**
      * Activate a hotel.
      * - Sets hotel as active
-     * - Initializes inventory for all rooms for a year
+     * - Initializes inventory for all rooms up to the horizon
      */
     @Override
     @Transactional
     public void activateHotel(Long hotelId) {
         log.info("Activating the hotel with ID: {}", hotelId);
-        Hotel hotel = hotelRepository.findById(hotelId)
+        Hotel hotel = hotelRepository.findWithRoomsById(hotelId)
                 .orElseThrow(() -> new ResourceNotFoundException("Hotel not found with ID:" + hotelId));
 
         User user = (User) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
@@ -137,12 +155,15 @@ public class HotelServiceImpl implements HotelService {
             throw new UnAuthorisedException("This user does not own this hotel with id: " + hotelId);
         }
 
+        hotelDeletionService.checkNotBeingDeleted(hotelId);
         hotel.setActive(true);
 
         // Initialize inventory for each room
         for (Room room : hotel.getRooms()) {
-            inventoryService.initializeRoomForAYear(room);
+            inventoryService.initializeRoomInventory(room);
         }
+        hotelCacheEvictor.evictHotel(hotelId);
+        hotelFacetIndex.refreshAfterCommit(hotelId);
     }
 
     /**
@@ -153,10 +174,8 @@ public class HotelServiceImpl implements HotelService {
         User user = getCurrentUser();
         log.info("Getting all hotels for the admin user with ID: {}", user.getId());
 
-        List<Hotel> hotels = hotelRepository.findByOwner(user);
-        return hotels.stream()
-                .map(hotel -> modelMapper.map(hotel, HotelDto.class))
-                .collect(Collectors.toList());
+        // Projection query: HotelDto columns only, no Hotel entities hydrated
+        return hotelRepository.findHotelDtosByOwnerId(user.getId());
     }
 
     /**
@@ -165,13 +184,20 @@ public class HotelServiceImpl implements HotelService {
      */
     @Override
     public HotelInfoDto getHotelInfoById(Long hotelId) {
-        Hotel hotel = hotelRepository.findById(hotelId)
+        // Hotel and rooms in one query (entity graph) instead of a lazy rooms load
+        Hotel hotel = hotelRepository.findWithRoomsById(hotelId)
                 .orElseThrow(() -> new ResourceNotFoundException("Hotel not found with ID: " + hotelId));
 
         List<RoomDto> rooms = hotel.getRooms().stream()
-                .map(room -> modelMapper.map(room, RoomDto.class))
+                .map(roomMapper::toDto)
                 .toList();
 
-        return new HotelInfoDto(modelMapper.map(hotel, HotelDto.class), rooms);
+        LocalDateTime lastModified = hotel.getRooms().stream()
+                .map(Room::getUpdatedAt)
+                .filter(Objects::nonNull)
+                .reduce(hotel.getUpdatedAt(), (latest, updatedAt) ->
+                        latest == null || updatedAt.isAfter(latest) ? updatedAt : latest);
+
+        return new HotelInfoDto(hotelMapper.toDto(hotel), rooms, lastModified);
     }
 }
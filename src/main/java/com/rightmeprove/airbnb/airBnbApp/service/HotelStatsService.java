@@ -0,0 +1,174 @@
+package com.rightmeprove.airbnb.airBnbApp.service;
+
+import com.rightmeprove.airbnb.airBnbApp.dto.HotelReportDayDto;
+import com.rightmeprove.airbnb.airBnbApp.dto.HotelReportDto;
+import com.rightmeprove.airbnb.airBnbApp.entity.Booking;
+import com.rightmeprove.airbnb.airBnbApp.entity.HotelDailyStats;
+import com.rightmeprove.airbnb.airBnbApp.exception.BadRequestException;
+import com.rightmeprove.airbnb.airBnbApp.repository.HotelDailyStatsRepository;
+import com.rightmeprove.airbnb.airBnbApp.repository.HotelRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maintains the HotelDailyStats rollup and builds hotel reports from it.
+ *
+ * - Incremental: BookingService calls recordConfirmed/recordCancelled inside its transaction,
+ *   so the rollup changes commit (or roll back) together with the booking status.
+ * - Backfill: every night each hotel's rows are rebuilt from its bookings and inventory
+ *   (one transaction per hotel). This covers history, rooms offered after inventory changes,
+ *   and any drift. It also runs at startup when the rollup is still empty.
+ *   Days whose inventory partition was archived are no longer rebuilt, they keep their figures.
+ * - Reports read one row per day of the window, whatever the number of bookings.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class HotelStatsService {
+
+    // Report window: at most a year (leap years included), one entry per day
+    public static final int MAX_REPORT_DAYS = 366;
+
+    private final HotelDailyStatsRepository hotelDailyStatsRepository;
+    private final HotelRepository hotelRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final InventoryPartitionService inventoryPartitionService;
+    private final HotelDeletionService hotelDeletionService;
+
+    /** A booking was confirmed: count it on its creation day and its rooms on each day of the stay. */
+    public void recordConfirmed(Booking booking) {
+        apply(booking, 1);
+    }
+
+    /** A confirmed booking was cancelled: take it back out and count the cancellation. */
+    public void recordCancelled(Booking booking) {
+        apply(booking, -1);
+    }
+
+    private void apply(Booking booking, int sign) {
+        Long hotelId = booking.getHotel().getId();
+        BigDecimal amount = booking.getAmount().multiply(BigDecimal.valueOf(sign));
+
+        hotelDailyStatsRepository.addBookings(hotelId, booking.getCreatedAt().toLocalDate(),
+                sign, amount, sign < 0 ? 1 : 0);
+
+        // Same split as the backfill: equal daily shares, the first day takes the rounding remainder
+        long days = ChronoUnit.DAYS.between(booking.getCheckInDate(), booking.getCheckOutDate()) + 1;
+        BigDecimal dailyRevenue = amount.divide(BigDecimal.valueOf(days), 2, RoundingMode.HALF_UP);
+        BigDecimal firstDayRevenue = amount.subtract(dailyRevenue.multiply(BigDecimal.valueOf(days - 1)));
+
+        hotelDailyStatsRepository.addStay(hotelId, booking.getCheckInDate(), booking.getCheckOutDate(),
+                sign * booking.getRoomsCount(), firstDayRevenue, dailyRevenue);
+    }
+
+    /** First start with the rollup: fill it from the existing bookings. */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        if (hotelDailyStatsRepository.findFirstByOrderByIdAsc().isEmpty()) {
+            backfill();
+        }
+    }
+
+    /**
+     * Nightly rebuild of every hotel's rows.
+     * Each hotel is replaced in its own short transaction, so reports never see a half-built hotel.
+     */
+    @Scheduled(cron = "${hotel.stats.backfill.cron:0 30 3 * * *}")
+    public void backfill() {
+        long start = System.nanoTime();
+        List<Long> hotelIds = hotelRepository.findIdsNotBeingDeleted();
+        long rows = 0;
+        for (Long hotelId : hotelIds) {
+            rows += rebuild(hotelId);
+        }
+        log.info("Rebuilt daily stats of {} hotels ({} rows) in {} ms",
+                hotelIds.size(), rows, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Replace one hotel's rows with figures computed from its bookings and inventory.
+     * Days before the archived inventory months keep their rows (their inventory is no longer live).
+     * A hotel that is being deleted is left alone (its deletion also clears these rows).
+     */
+    public int rebuild(Long hotelId) {
+        LocalDate fromDate = inventoryPartitionService.firstRetainedDay();
+        Integer rows = transactionTemplate.execute(status -> {
+            if (hotelDeletionService.isBeingDeleted(hotelId)) {
+                return 0;
+            }
+            hotelDailyStatsRepository.deleteByHotelIdFrom(hotelId, fromDate);
+            return hotelDailyStatsRepository.insertFromBookingsAndInventory(hotelId, fromDate);
+        });
+        return rows == null ? 0 : rows;
+    }
+
+    /**
+     * Report for [startDate, endDate] from the rollup: one entry per day (zeros for days without a row)
+     * plus totals over the window.
+     * @throws BadRequestException when the window is empty or longer than MAX_REPORT_DAYS days
+     */
+    public HotelReportDto getReport(Long hotelId, LocalDate startDate, LocalDate endDate) {
+        if (endDate.isBefore(startDate) || ChronoUnit.DAYS.between(startDate, endDate) >= MAX_REPORT_DAYS) {
+            throw new BadRequestException("The report covers 1 to " + MAX_REPORT_DAYS + " days, endDate included");
+        }
+        Map<LocalDate, HotelDailyStats> rowsByDate = new HashMap<>();
+        for (HotelDailyStats row : hotelDailyStatsRepository.findByHotelIdAndDateBetweenOrderByDate(hotelId, startDate, endDate)) {
+            rowsByDate.put(row.getDate(), row);
+        }
+
+        List<HotelReportDayDto> days = new ArrayList<>();
+        long bookings = 0, cancelled = 0, sold = 0, available = 0;
+        BigDecimal revenue = BigDecimal.ZERO;
+        BigDecimal roomRevenue = BigDecimal.ZERO;
+
+        for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
+            HotelDailyStats row = rowsByDate.get(date);
+            if (row == null) {
+                days.add(new HotelReportDayDto(date, 0L, BigDecimal.ZERO, 0L, 0L, 0L,
+                        BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO));
+                continue;
+            }
+            days.add(new HotelReportDayDto(date,
+                    (long) row.getConfirmedBookings(), row.getRevenue(), (long) row.getCancelledBookings(),
+                    (long) row.getRoomNightsSold(), (long) row.getRoomNightsAvailable(),
+                    ratio(BigDecimal.valueOf(row.getRoomNightsSold()), row.getRoomNightsAvailable(), 4),
+                    ratio(row.getRoomRevenue(), row.getRoomNightsSold(), 2),
+                    ratio(row.getRoomRevenue(), row.getRoomNightsAvailable(), 2)));
+
+            bookings += row.getConfirmedBookings();
+            cancelled += row.getCancelledBookings();
+            sold += row.getRoomNightsSold();
+            available += row.getRoomNightsAvailable();
+            revenue = revenue.add(row.getRevenue());
+            roomRevenue = roomRevenue.add(row.getRoomRevenue());
+        }
+
+        BigDecimal avgRevenue = bookings == 0 ? BigDecimal.ZERO :
+                revenue.divide(BigDecimal.valueOf(bookings), RoundingMode.HALF_UP);
+
+        return new HotelReportDto(bookings, revenue, avgRevenue, cancelled, sold, available,
+                ratio(BigDecimal.valueOf(sold), available, 4),
+                ratio(roomRevenue, sold, 2),
+                ratio(roomRevenue, available, 2),
+                days);
+    }
+
+    /** Helper: value / divisor rounded to the scale, 0 when there is nothing to divide by. */
+    private static BigDecimal ratio(BigDecimal value, long divisor, int scale) {
+        return divisor <= 0 ? BigDecimal.ZERO : value.divide(BigDecimal.valueOf(divisor), scale, RoundingMode.HALF_UP);
+    }
+}
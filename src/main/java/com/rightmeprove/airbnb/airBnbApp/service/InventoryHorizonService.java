@@ -0,0 +1,84 @@
+package com.rightmeprove.airbnb.airBnbApp.service;
+
+import com.rightmeprove.airbnb.airBnbApp.cache.SearchVersion;
+import com.rightmeprove.airbnb.airBnbApp.repository.InventoryRepository;
+import com.rightmeprove.airbnb.airBnbApp.repository.RoomRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Keeps every active room bookable a rolling horizon ahead.
+ *
+ * - New rooms get inventory up to the horizon (InventoryService.initializeRoomInventory); without this
+ *   job it would run out and the room would silently drop out of search.
+ * - Every night the missing days up to today + horizon are appended for all rooms of active hotels,
+ *   normally a single day per room instead of a horizon-long seeding burst.
+ * - Rooms are processed in ID batches, one set-based INSERT ... ON CONFLICT DO NOTHING per batch,
+ *   each in its own short transaction. Re-running the job (or racing with activation) adds nothing twice.
+ */
+@Service
+@Slf4j
+public class InventoryHorizonService {
+
+    private final RoomRepository roomRepository;
+    private final InventoryRepository inventoryRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final SearchVersion searchVersion;
+    private final InventoryPartitionService inventoryPartitionService;
+    private final int horizonDays;
+    private final int batchSize;
+
+    public InventoryHorizonService(RoomRepository roomRepository,
+                                   InventoryRepository inventoryRepository,
+                                   TransactionTemplate transactionTemplate,
+                                   SearchVersion searchVersion,
+                                   InventoryPartitionService inventoryPartitionService,
+                                   @Value("${inventory.horizon.days}") int horizonDays,
+                                   @Value("${inventory.horizon.batch-size:500}") int batchSize) {
+        this.roomRepository = roomRepository;
+        this.inventoryRepository = inventoryRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.searchVersion = searchVersion;
+        this.inventoryPartitionService = inventoryPartitionService;
+        this.horizonDays = horizonDays;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Nightly extension of all active rooms to today + horizon days.
+     * @return number of inventory rows added
+     */
+    @Scheduled(cron = "${inventory.horizon.cron:0 0 2 * * *}")
+    public long extendHorizon() {
+        long start = System.nanoTime();
+        LocalDate today = LocalDate.now();
+        LocalDate endDate = today.plusDays(horizonDays);
+        inventoryPartitionService.ensurePartitionsUpTo(endDate);
+
+        long rooms = 0;
+        long rows = 0;
+        Long afterId = 0L;
+        List<Long> roomIds;
+        while (!(roomIds = roomRepository.findActiveRoomIdsAfter(afterId, Limit.of(batchSize))).isEmpty()) {
+            List<Long> batch = roomIds;
+            Integer added = transactionTemplate.execute(status -> inventoryRepository.insertMissingDays(batch, today, endDate));
+            rows += added == null ? 0 : added;
+            rooms += batch.size();
+            afterId = batch.get(batch.size() - 1);
+        }
+
+        if (rows > 0) {
+            searchVersion.bumpAfterCommit(); // stays in the new days can now be found
+        }
+        log.info("Extended inventory of {} rooms up to {}: {} rows added in {} ms",
+                rooms, endDate, rows, (System.nanoTime() - start) / 1_000_000);
+        return rows;
+    }
+}
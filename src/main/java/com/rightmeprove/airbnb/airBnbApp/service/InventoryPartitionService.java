@@ -0,0 +1,271 @@
+package com.rightmeprove.airbnb.airBnbApp.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+/**
+ * Monthly range partitions (PostgreSQL declarative partitioning) of the date-keyed tables:
+ * inventory and hotel_min_price.
+ *
+ * - Conversion: Hibernate (ddl-auto=update) creates plain tables. A plain table is converted once:
+ *   renamed, re-created as PARTITION BY RANGE (date) with one partition per month of its data, rows
+ *   copied, then its constraints and indexes re-created. The primary key becomes (id, date) (a
+ *   partitioned table's unique keys must hold the partition column); the entities mark date as
+ *   @PartitionKey.
+ *   The copy holds an exclusive lock on the table, so it is an explicit step: it runs at startup
+ *   only with inventory.partitions.convert=true (one instance, maintenance window), or for a table
+ *   that is still empty (fresh install). Startup work runs before the web server accepts requests,
+ *   so the instance is not ready until it is done.
+ * - Maintenance (startup and every night, before the inventory horizon job):
+ *   partitions are created ahead up to one month past the inventory horizon, and months older
+ *   than the retention are detached and moved to the "archive" schema. Searches, indexes and
+ *   vacuum then only deal with the live months; the archived tables stay queryable.
+ * - Writers that insert far ahead (new rooms, the horizon and pricing jobs) call ensurePartitionsUpTo
+ *   first, so a missed maintenance run cannot make their inserts fail.
+ * - Partitions are named table_pYYYY_MM, e.g. inventory_p2025_11.
+ */
+@Service
+@Slf4j
+public class InventoryPartitionService implements SmartInitializingSingleton {
+
+    private static final List<String> PARTITIONED_TABLES = List.of("inventory", "hotel_min_price");
+    private static final String ARCHIVE_SCHEMA = "archive";
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    // Partitions created on demand commit on their own, outside the writer's transaction
+    private final TransactionTemplate partitionTransactionTemplate;
+    private final boolean convert;
+    private final int retentionMonths;
+    private final int horizonDays;
+
+    // Last month with a partition in every partitioned table (null until partitions were first created)
+    private volatile LocalDate partitionedThrough;
+
+    public InventoryPartitionService(JdbcTemplate jdbcTemplate,
+                                     TransactionTemplate transactionTemplate,
+                                     @Value("${inventory.partitions.convert:false}") boolean convert,
+                                     @Value("${inventory.partitions.retention-months:3}") int retentionMonths,
+                                     @Value("${inventory.horizon.days}") int horizonDays) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.partitionTransactionTemplate = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.partitionTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.convert = convert;
+        this.retentionMonths = retentionMonths;
+        this.horizonDays = horizonDays;
+    }
+
+    /** First day still held in the live partitions: start of the month, retention months ago. */
+    public LocalDate firstRetainedDay() {
+        return LocalDate.now().withDayOfMonth(1).minusMonths(retentionMonths);
+    }
+
+    /**
+     * Startup, once the schema is up to date but before the web server accepts requests and the
+     * scheduled jobs start: convert the plain tables that may be converted, then prepare the partitions.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        for (String table : PARTITIONED_TABLES) {
+            if (!tableExists(table) || isPartitioned(table)) {
+                continue;
+            }
+            if (convert || isEmpty(table)) {
+                transactionTemplate.executeWithoutResult(status -> convertToPartitioned(table));
+            } else {
+                log.warn("{} is not partitioned: converting it locks the table while its rows are copied, "
+                        + "start one instance with inventory.partitions.convert=true in a maintenance window", table);
+            }
+        }
+        maintainPartitions();
+    }
+
+    /**
+     * Make sure every partitioned table has its months up to lastDate, before rows are inserted that far ahead.
+     * Free once the months exist; otherwise they are created in a separate short transaction, which gives up
+     * (lock_timeout) rather than wait behind a transaction that already writes to the table.
+     */
+    public void ensurePartitionsUpTo(LocalDate lastDate) {
+        LocalDate lastMonth = lastDate.withDayOfMonth(1);
+        LocalDate through = partitionedThrough;
+        if (through != null && !lastMonth.isAfter(through)) {
+            return;
+        }
+        createPartitionsUpTo(lastMonth, true);
+    }
+
+    /**
+     * Nightly: create the coming months, archive the expired ones.
+     * Runs before InventoryHorizonService (02:00), which appends rows into the newest month.
+     */
+    @Scheduled(cron = "${inventory.partitions.cron:0 30 1 * * *}")
+    public void maintainPartitions() {
+        // Inventory and min prices are written up to the horizon
+        LocalDate lastMonth = LocalDate.now().plusDays(horizonDays).withDayOfMonth(1).plusMonths(1);
+        createPartitionsUpTo(lastMonth, false);
+
+        for (String table : PARTITIONED_TABLES) {
+            if (isPartitioned(table)) {
+                int archived = archivePartitions(table, firstRetainedDay());
+                log.info("Partitions of {}: created up to {}, {} archived", table, lastMonth, archived);
+            }
+        }
+    }
+
+    /** Create the missing months from the current one to lastMonth in every partitioned table. */
+    private synchronized void createPartitionsUpTo(LocalDate lastMonth, boolean onDemand) {
+        LocalDate firstMonth = LocalDate.now().withDayOfMonth(1);
+        for (String table : PARTITIONED_TABLES) {
+            if (!isPartitioned(table)) {
+                continue;
+            }
+            partitionTransactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.execute("SET LOCAL lock_timeout = '5s'");
+                for (LocalDate month = firstMonth; !month.isAfter(lastMonth); month = month.plusMonths(1)) {
+                    if (createPartition(table, month) && onDemand) {
+                        log.info("Created partition {} ahead of the nightly maintenance", partitionName(table, month));
+                    }
+                }
+            });
+        }
+        LocalDate through = partitionedThrough;
+        if (through == null || lastMonth.isAfter(through)) {
+            partitionedThrough = lastMonth;
+        }
+    }
+
+    /** Turn a plain table into a monthly partitioned one, keeping ids, rows, constraints and indexes. */
+    void convertToPartitioned(String table) {
+        if (!tableExists(table) || isPartitioned(table)) {
+            return;
+        }
+        long start = System.nanoTime();
+        String plainTable = table + "_unpartitioned";
+        jdbcTemplate.execute("LOCK TABLE " + table + " IN ACCESS EXCLUSIVE MODE");
+
+        // Everything but the primary key (re-created with the partition column), captured before the rename
+        List<String> constraints = jdbcTemplate.queryForList("""
+                SELECT format('ALTER TABLE %I ADD CONSTRAINT %I %s', ?, conname, pg_get_constraintdef(oid))
+                FROM pg_constraint
+                WHERE conrelid = CAST(? AS regclass) AND contype IN ('u', 'f')
+                """, String.class, table, table);
+        List<String> indexes = jdbcTemplate.queryForList("""
+                SELECT pg_get_indexdef(i.indexrelid)
+                FROM pg_index i
+                WHERE i.indrelid = CAST(? AS regclass)
+                  AND NOT EXISTS (SELECT 1 FROM pg_constraint c WHERE c.conindid = i.indexrelid)
+                """, String.class, table);
+
+        jdbcTemplate.execute("ALTER TABLE " + table + " RENAME TO " + plainTable);
+        jdbcTemplate.execute("CREATE TABLE " + table + " (LIKE " + plainTable
+                + " INCLUDING DEFAULTS INCLUDING IDENTITY) PARTITION BY RANGE (date)");
+
+        // One partition per month of the existing rows (expired months are archived right after)
+        LocalDate first = jdbcTemplate.queryForObject("SELECT MIN(date) FROM " + plainTable, LocalDate.class);
+        LocalDate last = jdbcTemplate.queryForObject("SELECT MAX(date) FROM " + plainTable, LocalDate.class);
+        if (first != null) {
+            for (LocalDate month = first.withDayOfMonth(1); !month.isAfter(last); month = month.plusMonths(1)) {
+                createPartition(table, month);
+            }
+        }
+
+        int rows = jdbcTemplate.update("INSERT INTO " + table + " SELECT * FROM " + plainTable);
+        // The new identity sequence starts at 1: continue after the copied ids
+        jdbcTemplate.queryForObject("SELECT setval(pg_get_serial_sequence(?, 'id'), COALESCE(MAX(id), 0) + 1, false) FROM " + table,
+                Long.class, table);
+        jdbcTemplate.execute("DROP TABLE " + plainTable);
+
+        jdbcTemplate.execute("ALTER TABLE " + table + " ADD CONSTRAINT " + table + "_pkey PRIMARY KEY (id, date)");
+        constraints.forEach(jdbcTemplate::execute);
+        indexes.forEach(jdbcTemplate::execute);
+        log.info("Converted {} to monthly partitions: {} rows in {} ms", table, rows, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /** Create the month's partition unless it exists; true when it was created. */
+    private boolean createPartition(String table, LocalDate month) {
+        String partition = partitionName(table, month);
+        if (tableExists(partition)) {
+            return false;
+        }
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + partition + " PARTITION OF " + table
+                + " FOR VALUES FROM ('" + month + "') TO ('" + month.plusMonths(1) + "')");
+        return true;
+    }
+
+    /**
+     * Detach the partitions that end on or before firstRetainedDay and move them to the archive schema
+     * (without their foreign keys).
+     * DETACH ... CONCURRENTLY does not block bookings and searches on the parent table; it runs outside a transaction.
+     */
+    int archivePartitions(String table, LocalDate firstRetainedDay) {
+        List<String> partitions = jdbcTemplate.queryForList("""
+                SELECT c.relname
+                FROM pg_inherits i
+                JOIN pg_class c ON c.oid = i.inhrelid
+                WHERE i.inhparent = CAST(? AS regclass)
+                """, String.class, table);
+
+        int archived = 0;
+        for (String partition : partitions) {
+            LocalDate month = monthOf(table, partition);
+            if (month == null || month.plusMonths(1).isAfter(firstRetainedDay)) {
+                continue;
+            }
+            jdbcTemplate.execute("CREATE SCHEMA IF NOT EXISTS " + ARCHIVE_SCHEMA);
+            jdbcTemplate.execute("ALTER TABLE " + table + " DETACH PARTITION " + partition + " CONCURRENTLY");
+            // Archived rows must not keep hotels and rooms from being deleted
+            jdbcTemplate.queryForList("""
+                    SELECT format('ALTER TABLE %I DROP CONSTRAINT %I', ?, conname)
+                    FROM pg_constraint
+                    WHERE conrelid = CAST(? AS regclass) AND contype = 'f'
+                    """, String.class, partition, partition).forEach(jdbcTemplate::execute);
+            jdbcTemplate.execute("ALTER TABLE " + partition + " SET SCHEMA " + ARCHIVE_SCHEMA);
+            log.info("Archived partition {} to schema {}", partition, ARCHIVE_SCHEMA);
+            archived++;
+        }
+        return archived;
+    }
+
+    private boolean tableExists(String table) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, table));
+    }
+
+    private boolean isEmpty(String table) {
+        return Boolean.FALSE.equals(jdbcTemplate.queryForObject("SELECT EXISTS (SELECT 1 FROM " + table + ")", Boolean.class));
+    }
+
+    private boolean isPartitioned(String table) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM pg_partitioned_table WHERE partrelid = to_regclass(?))", Boolean.class, table));
+    }
+
+    private static String partitionName(String table, LocalDate month) {
+        return table + "_p" + month.format(PARTITION_SUFFIX);
+    }
+
+    /** Helper: month of a partition from its name, null for a table not named by this service. */
+    private static LocalDate monthOf(String table, String partition) {
+        String prefix = table + "_p";
+        if (!partition.startsWith(prefix)) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(partition.substring(prefix.length()) + "_01", DateTimeFormatter.ofPattern("yyyy_MM_dd"));
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
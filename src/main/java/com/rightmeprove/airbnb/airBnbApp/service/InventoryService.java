@@ -1,23 +1,38 @@
 package com.rightmeprove.airbnb.airBnbApp.service;
 
-import com.rightmeprove.airbnb.airBnbApp.dto.HotelPriceDto;
+import com.rightmeprove.airbnb.airBnbApp.dto.BulkInventoryUpdateRequestDto;
+import com.rightmeprove.airbnb.airBnbApp.dto.FlexibleSearchRequestDto;
+import com.rightmeprove.airbnb.airBnbApp.dto.FlexibleStayDto;
+import com.rightmeprove.airbnb.airBnbApp.dto.HotelSearchPageDto;
 import com.rightmeprove.airbnb.airBnbApp.dto.HotelSearchRequestDto;
 import com.rightmeprove.airbnb.airBnbApp.dto.InventoryDto;
+import com.rightmeprove.airbnb.airBnbApp.dto.InventoryPatchResultDto;
+import com.rightmeprove.airbnb.airBnbApp.dto.InventoryRangeDto;
 import com.rightmeprove.airbnb.airBnbApp.dto.UpdateInventoryRequestDto;
 import com.rightmeprove.airbnb.airBnbApp.entity.Room;
-import org.springframework.data.domain.Page;
 
+import java.time.LocalDate;
 import java.util.List;
 
 public interface InventoryService {
 
-    void initializeRoomForAYear(Room room);
+    void initializeRoomInventory(Room room);
 
     void deleteAllInventories(Room room);
 
-    Page<HotelPriceDto> searchHotels(HotelSearchRequestDto hotelSearchRequest);
+    void updateRoomTotalCount(Room room);
+
+    HotelSearchRequestDto normalizeSearchRequest(HotelSearchRequestDto hotelSearchRequest);
+
+    HotelSearchPageDto searchHotels(HotelSearchRequestDto hotelSearchRequest);
+
+    List<FlexibleStayDto> searchFlexibleStays(FlexibleSearchRequestDto flexibleSearchRequest);
 
     List<InventoryDto> getAllInventoryByRoom(Long roomId);
 
+    InventoryRangeDto getInventoryRangeByRoom(Long roomId, LocalDate startDate, LocalDate endDate);
+
     void updateInventory(Long roomId, UpdateInventoryRequestDto updateInventoryRequestDto);
+
+    List<InventoryPatchResultDto> bulkUpdateInventory(BulkInventoryUpdateRequestDto bulkInventoryUpdateRequestDto);
 }
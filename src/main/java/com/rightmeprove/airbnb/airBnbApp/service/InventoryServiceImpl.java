@@ -1,28 +1,42 @@
 package com.rightmeprove.airbnb.airBnbApp.service;
 
+import com.rightmeprove.airbnb.airBnbApp.cache.PriceCalendarCache;
+import com.rightmeprove.airbnb.airBnbApp.cache.SearchVersion;
 import com.rightmeprove.airbnb.airBnbApp.dto.*;
-import com.rightmeprove.airbnb.airBnbApp.entity.Inventory;
 import com.rightmeprove.airbnb.airBnbApp.entity.Room;
 import com.rightmeprove.airbnb.airBnbApp.entity.User;
+import com.rightmeprove.airbnb.airBnbApp.exception.BadRequestException;
 import com.rightmeprove.airbnb.airBnbApp.exception.ResourceNotFoundException;
 import com.rightmeprove.airbnb.airBnbApp.repository.HotelMinPriceRepository;
+import com.rightmeprove.airbnb.airBnbApp.repository.HotelRepository;
 import com.rightmeprove.airbnb.airBnbApp.repository.InventoryRepository;
 import com.rightmeprove.airbnb.airBnbApp.repository.RoomRepository;
+import com.rightmeprove.airbnb.airBnbApp.util.CursorUtils;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.modelmapper.ModelMapper;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Stream;
 
 import static com.rightmeprove.airbnb.airBnbApp.util.AppUtils.getCurrentUser;
 
@@ -31,37 +45,56 @@ import static com.rightmeprove.airbnb.airBnbApp.util.AppUtils.getCurrentUser;
 @Slf4j
 public class InventoryServiceImpl implements InventoryService {
 
+    private static final int MAX_SEARCH_PAGE_SIZE = 50;
+
+    private static final int MAX_FLEXIBLE_NIGHTS = 30;
+
+    // Best flexible-date stays first: cheapest total, then hotel ID for a stable order
+    static final Comparator<BestStay> CHEAPEST_FIRST = Comparator.comparingLong(BestStay::total)
+            .thenComparing(BestStay::hotelId);
+
+    // Compact room inventory listing: default range (the maximum is the whole horizon)
+    private static final int DEFAULT_INVENTORY_RANGE_DAYS = 30;
+
+    // Bulk inventory updates: patches per request
+    private static final int MAX_BULK_PATCHES = 500;
+
+    /** What a bulk patch writes; patches with the same key share one UPDATE. */
+    private record PatchKey(LocalDate startDate, LocalDate endDate, BigDecimal surgeFactor, Boolean closed) {
+    }
+
+    /** A range of a room already claimed by an UPDATE group (applied in ordinal order). */
+    private record RoomClaim(LocalDate startDate, LocalDate endDate, int ordinal) {
+    }
+
+    /** Rooms that receive the same change in one set-based UPDATE. */
+    private record UpdateGroup(int ordinal, PatchKey key, Set<Long> roomIds) {
+    }
+
     private final InventoryRepository inventoryRepository;     // CRUD & custom inventory queries
-    private final ModelMapper modelMapper;                     // Entity ↔ DTO conversion
     private final HotelMinPriceRepository hotelMinPriceRepository; // Custom query for searching hotels
     private final RoomRepository roomRepository;               // For verifying room existence
+    private final HotelRepository hotelRepository;             // Hotel details for search result pages
+    private final PriceCalendarCache priceCalendarCache;       // Public per-hotel calendars (availability)
+    private final SearchVersion searchVersion;                 // Search results and their ETags (availability)
+    private final InventoryPartitionService inventoryPartitionService; // Monthly partitions the inserts go to
+
+    @Value("${inventory.horizon.days}")
+    private int horizonDays; // Inventory exists from today up to today + horizonDays
 
     /**
-     * Initialize inventory for a room for 1 year.
-     * - Creates daily Inventory rows with default values.
-     * - Links each inventory to the hotel, room, and city.
+     * Initialize inventory for a room from today up to the horizon (inventory.horizon.days).
+     * - One set-based INSERT of the daily rows (base price, no surge, open), linked to hotel, room and city.
+     * - Days that already exist are kept, so activating a hotel again does not fail on duplicates;
+     *   InventoryHorizonService later extends the horizon day by day.
      */
     @Override
     @Transactional
-    public void initializeRoomForAYear(Room room) {
+    public void initializeRoomInventory(Room room) {
         LocalDate today = LocalDate.now();
-        LocalDate endDate = today.plusYears(1);
-
-        // Loop through all days from today to 1 year ahead
-        for (; !today.isAfter(endDate); today = today.plusDays(1)) {
-            Inventory inventory = Inventory.builder()
-                    .hotel(room.getHotel())               // link inventory to hotel
-                    .room(room)                           // link to room
-                    .city(room.getHotel().getCity())      // store city for faster queries
-                    .date(today)                          // inventory date
-                    .reservedCount(0)                     // no rooms reserved initially
-                    .price(room.getBasePrice())           // base price for the room
-                    .surgeFactor(BigDecimal.ONE)          // no surge initially
-                    .totalCount(room.getTotalCount())     // total available rooms
-                    .closed(false)                        // room is open for booking
-                    .build();
-            inventoryRepository.save(inventory);
-        }
+        inventoryPartitionService.ensurePartitionsUpTo(today.plusDays(horizonDays));
+        int rows = inventoryRepository.insertMissingDays(List.of(room.getId()), today, today.plusDays(horizonDays));
+        log.info("Initialized {} inventory days for room with ID: {}", rows, room.getId());
     }
 
     /**
@@ -75,41 +108,349 @@ public class InventoryServiceImpl implements InventoryService {
         inventoryRepository.deleteByRoom(room); // bulk delete for efficiency
     }
 
+    /**
+     * Apply a room's new totalCount to its inventory from today on.
+     * - The room's future days are locked first (date order), so no booking can slip in
+     *   between the check and the update.
+     * - Rejected when a day already has more rooms booked or reserved than the new total.
+     * - One set-based UPDATE for all future days; past days keep their figures.
+     */
+    @Override
+    @Transactional
+    public void updateRoomTotalCount(Room room) {
+        LocalDate today = LocalDate.now();
+        int totalCount = room.getTotalCount();
+        if (totalCount < 0) {
+            throw new BadRequestException("totalCount must not be negative");
+        }
+
+        inventoryRepository.lockInventoryOfRoomFrom(room.getId(), today);
+        LocalDate overbookedDay = inventoryRepository.findFirstDayAboveTotalCount(room.getId(), today, totalCount);
+        if (overbookedDay != null) {
+            throw new BadRequestException("totalCount " + totalCount
+                    + " is below the rooms already booked or reserved on " + overbookedDay);
+        }
+
+        int rows = inventoryRepository.updateTotalCountFrom(room.getId(), today, totalCount);
+        priceCalendarCache.invalidateAfterCommit(room.getHotel().getId()); // available rooms change
+        log.info("Set totalCount {} on {} inventory days of room with ID: {}", totalCount, rows, room.getId());
+    }
+
+    /**
+     * Validate and canonicalise search criteria (in place).
+     * - City is trimmed and lower-cased (the search matches LOWER(city)).
+     * - Dates must lie between today and the inventory horizon, check-out not before check-in.
+     * - Paging and rooms count are bounded.
+     * - Filters: capacity >= 1, prices not negative and minPrice <= maxPrice; amenity lists are
+     *   trimmed, de-duplicated and sorted.
+     * Equal searches then share one cache key and one ETag (HotelSearchRequestDto.toCacheKey).
+     */
+    @Override
+    public HotelSearchRequestDto normalizeSearchRequest(HotelSearchRequestDto request) {
+        if (request.getCity() == null || request.getCity().isBlank()) {
+            throw new BadRequestException("city is required");
+        }
+        if (request.getStartDate() == null || request.getEndDate() == null) {
+            throw new BadRequestException("startDate and endDate are required (yyyy-MM-dd)");
+        }
+
+        LocalDate today = LocalDate.now();
+        if (request.getStartDate().isBefore(today)) {
+            throw new BadRequestException("startDate must not be in the past");
+        }
+        if (request.getEndDate().isBefore(request.getStartDate())) {
+            throw new BadRequestException("endDate must not be before startDate");
+        }
+        if (request.getEndDate().isAfter(today.plusDays(horizonDays))) {
+            // No inventory exists beyond the horizon, so such searches can never match
+            throw new BadRequestException("endDate must be within " + horizonDays + " days from today");
+        }
+
+        if (request.getRoomsCount() == null || request.getRoomsCount() < 1) {
+            throw new BadRequestException("roomsCount must be at least 1");
+        }
+        if (request.getSize() == null || request.getSize() < 1 || request.getSize() > MAX_SEARCH_PAGE_SIZE) {
+            throw new BadRequestException("size must be between 1 and " + MAX_SEARCH_PAGE_SIZE);
+        }
+
+        if (request.getMinCapacity() != null && request.getMinCapacity() < 1) {
+            throw new BadRequestException("minCapacity must be at least 1");
+        }
+        if ((request.getMinPrice() != null && request.getMinPrice() < 0)
+                || (request.getMaxPrice() != null && request.getMaxPrice() < 0)) {
+            throw new BadRequestException("minPrice and maxPrice must not be negative");
+        }
+        if (request.getMinPrice() != null && request.getMaxPrice() != null
+                && request.getMinPrice() > request.getMaxPrice()) {
+            throw new BadRequestException("minPrice must not be greater than maxPrice");
+        }
+        request.setAmenities(normalizeAmenities(request.getAmenities()));
+        request.setRoomAmenities(normalizeAmenities(request.getRoomAmenities()));
+
+        if (request.getIncludeCount() == null) {
+            request.setIncludeCount(false);
+        }
+        if (request.getCursor() != null && request.getCursor().isBlank()) {
+            request.setCursor(null);
+        }
+
+        request.setCity(request.getCity().trim().toLowerCase(Locale.ROOT));
+        return request;
+    }
+
+    /**
+     * Helper: trim, drop blanks and duplicates, sort (order does not change a contains-all filter).
+     * Amenity values are matched exactly as stored, so their casing is kept.
+     */
+    private List<String> normalizeAmenities(List<String> amenities) {
+        if (amenities == null) {
+            return List.of();
+        }
+        return amenities.stream()
+                .filter(Objects::nonNull)
+                .map(String::trim)
+                .filter(amenity -> !amenity.isEmpty())
+                .distinct()
+                .sorted()
+                .toList();
+    }
+
     /**
      * Search hotels based on availability and requested dates.
-     * - Uses custom repository query to return hotels with sufficient inventory.
-     * - Returns a paginated result of HotelPriceDto.
+     * - Keyset pagination ordered by (average price, hotel ID): the cursor holds the last
+     *   price and hotel ID of the previous page, so deep pages cost the same as the first.
+     * - Fetches one extra row to know whether a next page exists (no count query needed).
+     * - The total count is only computed when includeCount=true.
+     * - Optional filters (hotel/room amenities, room capacity, price band) are applied in the
+     *   query, backed by GIN indexes on the amenity arrays (see schema.sql).
      */
     @Override
-    public Page<HotelPriceDto> searchHotels(HotelSearchRequestDto hotelSearchRequestDto) {
+    public HotelSearchPageDto searchHotels(HotelSearchRequestDto hotelSearchRequestDto) {
         log.info("Searching hotels for {} city, from {} to {} ",
                 hotelSearchRequestDto.getCity(),
                 hotelSearchRequestDto.getStartDate(),
                 hotelSearchRequestDto.getEndDate());
 
-        // Setup pagination
-        Pageable pageable = PageRequest.of(
-                hotelSearchRequestDto.getPage(),
-                hotelSearchRequestDto.getSize()
-        );
-
-        // Number of days requested (inclusive)
-        long dateCount = ChronoUnit.DAYS.between(
-                hotelSearchRequestDto.getStartDate(),
-                hotelSearchRequestDto.getEndDate()
-        ) + 1;
+        // Position after which this page starts (null → first page)
+        BigDecimal afterPrice = null;
+        Long afterHotelId = null;
+        if (hotelSearchRequestDto.getCursor() != null) {
+            String[] position = CursorUtils.decode(hotelSearchRequestDto.getCursor(), 2);
+            try {
+                afterPrice = new BigDecimal(position[0]);
+                afterHotelId = Long.valueOf(position[1]);
+            } catch (NumberFormatException e) {
+                throw new BadRequestException("Invalid cursor");
+            }
+        }
 
-        // Query DB for hotels with enough inventory for all requested days
-        Page<HotelPriceDto> hotelPage = hotelMinPriceRepository.findHotelWithAvailableInventory(
+        HotelMinPriceRepository.SearchFilter filter = new HotelMinPriceRepository.SearchFilter(
                 hotelSearchRequestDto.getCity(),
                 hotelSearchRequestDto.getStartDate(),
                 hotelSearchRequestDto.getEndDate(),
-                hotelSearchRequestDto.getRoomsCount(),
-                dateCount,
-                pageable
+                hotelSearchRequestDto.getAmenities().toArray(String[]::new),
+                hotelSearchRequestDto.getRoomAmenities().toArray(String[]::new),
+                hotelSearchRequestDto.getMinCapacity() != null ? hotelSearchRequestDto.getMinCapacity() : 1,
+                hotelSearchRequestDto.getMinPrice(),
+                hotelSearchRequestDto.getMaxPrice()
         );
 
-        return hotelPage;
+        int size = hotelSearchRequestDto.getSize();
+        List<HotelMinPriceRepository.HotelAvgPrice> rows = hotelMinPriceRepository.findHotelPricesPage(
+                filter,
+                afterPrice,
+                afterHotelId,
+                Limit.of(size + 1)
+        );
+
+        boolean hasNext = rows.size() > size;
+        if (hasNext) {
+            rows = rows.subList(0, size);
+        }
+
+        // Hotel details for this page only, in one query
+        Map<Long, HotelDto> hotelsById = new HashMap<>();
+        List<Long> hotelIds = rows.stream().map(HotelMinPriceRepository.HotelAvgPrice::getHotelId).toList();
+        for (HotelDto hotel : hotelRepository.findHotelDtosByIdIn(hotelIds)) {
+            hotelsById.put(hotel.getId(), hotel);
+        }
+        List<HotelPriceDto> content = rows.stream()
+                .map(row -> new HotelPriceDto(hotelsById.get(row.getHotelId()), row.getPrice().doubleValue()))
+                .toList();
+
+        String nextCursor = null;
+        if (hasNext) {
+            HotelMinPriceRepository.HotelAvgPrice last = rows.get(rows.size() - 1);
+            nextCursor = CursorUtils.encode(last.getPrice().toPlainString(), last.getHotelId()); // exact, no exponent
+        }
+
+        Long totalElements = null;
+        if (hotelSearchRequestDto.getIncludeCount()) {
+            totalElements = hotelMinPriceRepository.countHotelsWithPrices(filter);
+        }
+
+        return new HotelSearchPageDto(content, nextCursor, totalElements);
+    }
+
+    /**
+     * Flexible-date search: for every active hotel in the city, the cheapest stay of `nights`
+     * consecutive nights between startDate and endDate in one of its rooms; returns the `limit`
+     * cheapest stays.
+     * - One streamed query reads each room's nightly prices once (ordered by hotel, room, date),
+     *   instead of one search per candidate check-in date. Only nights the room is open with
+     *   roomsCount rooms left are returned, so a closed or sold-out night is a gap in its series.
+     * - Per room, prefix sums of the prices and of the priced nights give each window's total, and
+     *   whether every night in it is available, in O(1) — O(days) per room overall. A stay is never
+     *   stitched from different rooms, so the returned room can be booked for the whole window.
+     * - A hotel's result is its cheapest room stay; a bounded heap keeps the `limit` cheapest
+     *   stays across hotels.
+     */
+    @Override
+    @Transactional // the nightly price stream needs an open connection while it is consumed
+    public List<FlexibleStayDto> searchFlexibleStays(FlexibleSearchRequestDto request) {
+        validateFlexibleSearchRequest(request);
+        String city = request.getCity().trim().toLowerCase(Locale.ROOT);
+        LocalDate startDate = request.getStartDate();
+        int days = (int) ChronoUnit.DAYS.between(startDate, request.getEndDate()); // candidate nights
+        int nights = request.getNights();
+        int roomsCount = request.getRoomsCount();
+        int limit = request.getLimit();
+        log.info("Flexible search for {} city: {} nights between {} and {}", city, nights, startDate, request.getEndDate());
+
+        // Per-room working arrays, reused across rooms: nightly price in minor units, available
+        long[] prices = new long[days];
+        boolean[] priced = new boolean[days];
+        long[] priceSums = new long[days + 1];
+        int[] pricedCounts = new int[days + 1];
+
+        // Max-heap on price: its head is the most expensive of the best stays kept so far
+        PriorityQueue<BestStay> best = new PriorityQueue<>(limit + 1, CHEAPEST_FIRST.reversed());
+
+        try (Stream<InventoryRepository.RoomNightPrice> rows = inventoryRepository.streamAvailableRoomPrices(
+                city, startDate, request.getEndDate().minusDays(1), roomsCount)) {
+            Long hotelId = null;
+            Long roomId = null;
+            BestStay hotelBest = null;
+            for (Iterator<InventoryRepository.RoomNightPrice> it = rows.iterator(); it.hasNext(); ) {
+                InventoryRepository.RoomNightPrice row = it.next();
+                if (!row.roomId().equals(roomId)) {
+                    // Next room: finish the previous one, reset the series
+                    hotelBest = cheaper(hotelBest, cheapestStay(hotelId, roomId, prices, priced, priceSums, pricedCounts, nights));
+                    if (!row.hotelId().equals(hotelId)) {
+                        // Next hotel: its cheapest room stay competes with the other hotels
+                        keepIfBetter(best, limit, hotelBest);
+                        hotelBest = null;
+                        hotelId = row.hotelId();
+                    }
+                    roomId = row.roomId();
+                    Arrays.fill(priced, false);
+                }
+                int day = (int) ChronoUnit.DAYS.between(startDate, row.date());
+                prices[day] = row.price().movePointRight(2).longValue();
+                priced[day] = true;
+            }
+            hotelBest = cheaper(hotelBest, cheapestStay(hotelId, roomId, prices, priced, priceSums, pricedCounts, nights));
+            keepIfBetter(best, limit, hotelBest);
+        }
+
+        List<BestStay> stays = new ArrayList<>(best);
+        stays.sort(CHEAPEST_FIRST);
+
+        // Hotel details for the results only, in one query
+        Map<Long, HotelDto> hotelsById = new HashMap<>();
+        for (HotelDto hotel : hotelRepository.findHotelDtosByIdIn(stays.stream().map(BestStay::hotelId).toList())) {
+            hotelsById.put(hotel.getId(), hotel);
+        }
+        return stays.stream()
+                .map(stay -> new FlexibleStayDto(
+                        hotelsById.get(stay.hotelId()),
+                        stay.roomId(),
+                        startDate.plusDays(stay.startDay()),
+                        startDate.plusDays(stay.startDay() + nights),
+                        BigDecimal.valueOf(stay.total(), 2).multiply(BigDecimal.valueOf(roomsCount))))
+                .toList();
+    }
+
+    /** Cheapest window of one room: first night (days after startDate) and total of one room in minor units. */
+    record BestStay(Long hotelId, Long roomId, int startDay, long total) {
+    }
+
+    /**
+     * Helper: the room's cheapest window of `nights` consecutive available nights
+     * (earliest one on ties), or null when no such window exists (or there is no room yet).
+     */
+    static BestStay cheapestStay(Long hotelId, Long roomId, long[] prices, boolean[] priced,
+                                 long[] priceSums, int[] pricedCounts, int nights) {
+        if (roomId == null) {
+            return null;
+        }
+        int days = prices.length;
+        for (int day = 0; day < days; day++) {
+            priceSums[day + 1] = priceSums[day] + (priced[day] ? prices[day] : 0);
+            pricedCounts[day + 1] = pricedCounts[day] + (priced[day] ? 1 : 0);
+        }
+
+        BestStay cheapest = null;
+        for (int first = 0; first + nights <= days; first++) {
+            if (pricedCounts[first + nights] - pricedCounts[first] == nights) {
+                long total = priceSums[first + nights] - priceSums[first];
+                if (cheapest == null || total < cheapest.total()) {
+                    cheapest = new BestStay(hotelId, roomId, first, total);
+                }
+            }
+        }
+        return cheapest;
+    }
+
+    /** Helper: the cheaper of two stays of the same hotel (the first one on ties, null = none). */
+    static BestStay cheaper(BestStay current, BestStay candidate) {
+        if (current == null) {
+            return candidate;
+        }
+        return candidate != null && candidate.total() < current.total() ? candidate : current;
+    }
+
+    /** Helper: add the stay to the bounded heap, dropping the most expensive one beyond the limit. */
+    static void keepIfBetter(PriorityQueue<BestStay> best, int limit, BestStay stay) {
+        if (stay == null) {
+            return;
+        }
+        best.offer(stay);
+        if (best.size() > limit) {
+            best.poll();
+        }
+    }
+
+    /** Helper: flexible search criteria must name a city and fit in the inventory horizon. */
+    private void validateFlexibleSearchRequest(FlexibleSearchRequestDto request) {
+        if (request.getCity() == null || request.getCity().isBlank()) {
+            throw new BadRequestException("city is required");
+        }
+        if (request.getStartDate() == null || request.getEndDate() == null) {
+            throw new BadRequestException("startDate and endDate are required (yyyy-MM-dd)");
+        }
+        if (request.getNights() == null || request.getNights() < 1 || request.getNights() > MAX_FLEXIBLE_NIGHTS) {
+            throw new BadRequestException("nights must be between 1 and " + MAX_FLEXIBLE_NIGHTS);
+        }
+        if (request.getRoomsCount() == null || request.getRoomsCount() < 1) {
+            throw new BadRequestException("roomsCount must be at least 1");
+        }
+
+        LocalDate today = LocalDate.now();
+        if (request.getStartDate().isBefore(today)) {
+            throw new BadRequestException("startDate must not be in the past");
+        }
+        if (request.getEndDate().isAfter(today.plusDays(horizonDays))) {
+            // No inventory exists beyond the horizon, so such searches can never match
+            throw new BadRequestException("endDate must be within " + horizonDays + " days from today");
+        }
+        if (ChronoUnit.DAYS.between(request.getStartDate(), request.getEndDate()) < request.getNights()) {
+            throw new BadRequestException("The date range must be at least " + request.getNights() + " nights long");
+        }
+
+        if (request.getLimit() == null || request.getLimit() < 1 || request.getLimit() > MAX_SEARCH_PAGE_SIZE) {
+            throw new BadRequestException("limit must be between 1 and " + MAX_SEARCH_PAGE_SIZE);
+        }
     }
 
     /**
@@ -120,7 +461,7 @@ public class InventoryServiceImpl implements InventoryService {
     @Override
     public List<InventoryDto> getAllInventoryByRoom(Long roomId) {
         log.info("Getting all inventory by room for room with id: {}", roomId);
-        Room room = roomRepository.findById(roomId)
+        Room room = roomRepository.findWithHotelById(roomId)
                 .orElseThrow(() -> new ResourceNotFoundException("Room not found with id: " + roomId));
 
         // Ensure user owns the hotel
@@ -129,9 +470,216 @@ public class InventoryServiceImpl implements InventoryService {
             throw new AccessDeniedException("You are not the owner of the room with Id: " + roomId);
         }
 
-        return inventoryRepository.findByRoomOrderByDate(room).stream()
-                .map(inventory -> modelMapper.map(inventory, InventoryDto.class))
-                .collect(Collectors.toList());
+        // Projection query: InventoryDto columns only, no managed Inventory entities
+        return inventoryRepository.findInventoryDtosByRoomId(roomId);
+    }
+
+    /**
+     * Compact inventory of a room for [startDate, endDate] (defaults: today, 30 days).
+     * - One projection query over the range, no entities and no per-row mapping.
+     * - Rows are spread into one array per column, indexed by day offset from startDate,
+     *   so the JSON carries each field name once instead of once per day.
+     */
+    @Override
+    public InventoryRangeDto getInventoryRangeByRoom(Long roomId, LocalDate startDate, LocalDate endDate) {
+        LocalDate from = startDate != null ? startDate : LocalDate.now();
+        LocalDate to = endDate != null ? endDate : from.plusDays(DEFAULT_INVENTORY_RANGE_DAYS - 1);
+        if (to.isBefore(from) || ChronoUnit.DAYS.between(from, to) > horizonDays) {
+            throw new BadRequestException("The range covers 1 to " + (horizonDays + 1) + " days, endDate included");
+        }
+        log.info("Getting inventory of room {} between {} and {}", roomId, from, to);
+
+        Room room = roomRepository.findWithHotelById(roomId)
+                .orElseThrow(() -> new ResourceNotFoundException("Room not found with id: " + roomId));
+
+        // Ensure user owns the hotel
+        User user = getCurrentUser();
+        if (!user.equals(room.getHotel().getOwner())) {
+            throw new AccessDeniedException("You are not the owner of the room with Id: " + roomId);
+        }
+
+        int days = (int) ChronoUnit.DAYS.between(from, to) + 1;
+        BigDecimal[] price = new BigDecimal[days];
+        BigDecimal[] surgeFactor = new BigDecimal[days];
+        Integer[] bookedCount = new Integer[days];
+        Integer[] reservedCount = new Integer[days];
+        Integer[] totalCount = new Integer[days];
+        Boolean[] closed = new Boolean[days];
+
+        for (InventoryRepository.InventoryDay row : inventoryRepository.findInventoryDaysByRoomId(roomId, from, to)) {
+            int day = (int) ChronoUnit.DAYS.between(from, row.date());
+            price[day] = row.price();
+            surgeFactor[day] = row.surgeFactor();
+            bookedCount[day] = row.bookedCount();
+            reservedCount[day] = row.reservedCount();
+            totalCount[day] = row.totalCount();
+            closed[day] = row.closed();
+        }
+
+        return new InventoryRangeDto(roomId, from, to, price, surgeFactor, bookedCount, reservedCount, totalCount, closed);
+    }
+
+    /**
+     * Apply many (room, range, surgeFactor/closed) patches in one transaction.
+     * - Each patch is validated on its own (dates, values, room ownership); rejected patches are
+     *   reported and skipped, the others are applied.
+     * - Rooms come from one query; only the ranges the patches target are locked, room by room
+     *   (overlapping ranges of a room merged), in (room, date) order, so concurrent bulk updates
+     *   cannot deadlock on each other and patches far apart do not lock the days between them.
+     * - Patches with identical values and dates become one UPDATE over all their rooms
+     *   (closing a whole hotel is a single statement). A patch only joins an earlier UPDATE when no
+     *   patch in between overlaps it, so overlapping patches still apply in request order.
+     * @return one result per patch, in request order, with the number of days its UPDATE changed
+     */
+    @Override
+    @Transactional
+    public List<InventoryPatchResultDto> bulkUpdateInventory(BulkInventoryUpdateRequestDto bulkInventoryUpdateRequestDto) {
+        List<InventoryPatchDto> patches = bulkInventoryUpdateRequestDto == null || bulkInventoryUpdateRequestDto.getPatches() == null
+                ? List.of() : bulkInventoryUpdateRequestDto.getPatches();
+        if (patches.isEmpty() || patches.size() > MAX_BULK_PATCHES) {
+            throw new BadRequestException("A bulk update holds 1 to " + MAX_BULK_PATCHES + " patches");
+        }
+        log.info("Bulk updating inventory with {} patches", patches.size());
+
+        // All rooms (with hotel and owner) in one query
+        Set<Long> requestedRoomIds = new HashSet<>();
+        for (InventoryPatchDto patch : patches) {
+            if (patch != null && patch.getRoomId() != null) {
+                requestedRoomIds.add(patch.getRoomId());
+            }
+        }
+        Map<Long, Room> rooms = new HashMap<>();
+        for (Room room : roomRepository.findWithHotelByIdIn(requestedRoomIds)) {
+            rooms.put(room.getId(), room);
+        }
+        User user = getCurrentUser();
+
+        InventoryPatchResultDto[] results = new InventoryPatchResultDto[patches.size()];
+        List<UpdateGroup> groups = new ArrayList<>();
+        Map<PatchKey, UpdateGroup> openGroups = new HashMap<>();
+        Map<Long, List<RoomClaim>> claims = new HashMap<>();
+        List<Integer> applied = new ArrayList<>();
+        int[] patchGroups = new int[patches.size()];
+
+        for (int index = 0; index < patches.size(); index++) {
+            InventoryPatchDto patch = patches.get(index);
+            String error = validatePatch(patch, rooms, user);
+            if (error != null) {
+                results[index] = new InventoryPatchResultDto(index, patch == null ? null : patch.getRoomId(), false, 0, error);
+                continue;
+            }
+
+            PatchKey key = new PatchKey(patch.getStartDate(), patch.getEndDate(),
+                    patch.getSurgeFactor() == null ? null : patch.getSurgeFactor().stripTrailingZeros(), patch.getClosed());
+            UpdateGroup group = openGroups.get(key);
+            if (group == null || overlapsLaterGroup(claims.get(patch.getRoomId()), patch, group.ordinal())) {
+                group = new UpdateGroup(groups.size(), key, new TreeSet<>());
+                groups.add(group);
+                openGroups.put(key, group);
+            }
+            group.roomIds().add(patch.getRoomId());
+            claims.computeIfAbsent(patch.getRoomId(), roomId -> new ArrayList<>())
+                    .add(new RoomClaim(patch.getStartDate(), patch.getEndDate(), group.ordinal()));
+            patchGroups[index] = group.ordinal();
+            applied.add(index);
+        }
+
+        if (!applied.isEmpty()) {
+            // Lock every targeted row first, in (room, date) order
+            for (Long roomId : new TreeSet<>(claims.keySet())) {
+                lockClaimedRanges(roomId, claims.get(roomId));
+            }
+
+            // Rows updated per group and room
+            List<Map<Long, Integer>> updatedDays = new ArrayList<>();
+            for (UpdateGroup group : groups) {
+                PatchKey key = group.key();
+                Map<Long, Integer> counts = new HashMap<>();
+                for (InventoryRepository.RoomUpdateCount row : inventoryRepository.updateInventoryOfRooms(
+                        group.roomIds(), key.startDate(), key.endDate(), key.closed(), key.surgeFactor())) {
+                    counts.put(row.roomId(), row.updatedDays().intValue());
+                }
+                updatedDays.add(counts);
+            }
+
+            Set<Long> hotelIds = new HashSet<>();
+            for (int index : applied) {
+                InventoryPatchDto patch = patches.get(index);
+                results[index] = new InventoryPatchResultDto(index, patch.getRoomId(), true,
+                        updatedDays.get(patchGroups[index]).getOrDefault(patch.getRoomId(), 0), null);
+                hotelIds.add(rooms.get(patch.getRoomId()).getHotel().getId());
+            }
+            hotelIds.forEach(priceCalendarCache::invalidateAfterCommit); // closed days change availability
+            searchVersion.bumpAfterCommit();
+            log.info("Applied {} of {} inventory patches with {} updates", applied.size(), patches.size(), groups.size());
+        }
+        return Arrays.asList(results);
+    }
+
+    /** Helper: why a bulk patch cannot be applied, or null when it is valid. */
+    private String validatePatch(InventoryPatchDto patch, Map<Long, Room> rooms, User user) {
+        if (patch == null || patch.getRoomId() == null) {
+            return "roomId is required";
+        }
+        if (patch.getStartDate() == null || patch.getEndDate() == null) {
+            return "startDate and endDate are required";
+        }
+        if (patch.getEndDate().isBefore(patch.getStartDate())
+                || ChronoUnit.DAYS.between(patch.getStartDate(), patch.getEndDate()) > horizonDays) {
+            return "The range covers 1 to " + (horizonDays + 1) + " days, endDate included";
+        }
+        if (patch.getSurgeFactor() == null && patch.getClosed() == null) {
+            return "Nothing to update: set surgeFactor and/or closed";
+        }
+        // NUMERIC(5,2) column
+        if (patch.getSurgeFactor() != null
+                && (patch.getSurgeFactor().signum() <= 0 || patch.getSurgeFactor().compareTo(BigDecimal.valueOf(1000)) >= 0)) {
+            return "surgeFactor must be greater than 0 and below 1000";
+        }
+        Room room = rooms.get(patch.getRoomId());
+        if (room == null) {
+            return "Room not found with id: " + patch.getRoomId();
+        }
+        if (!user.equals(room.getHotel().getOwner())) {
+            return "You are not the owner of the room with Id: " + patch.getRoomId();
+        }
+        return null;
+    }
+
+    /** Helper: lock a room's claimed ranges in date order, overlapping or adjacent ranges as one. */
+    private void lockClaimedRanges(Long roomId, List<RoomClaim> roomClaims) {
+        List<RoomClaim> sorted = new ArrayList<>(roomClaims);
+        sorted.sort(Comparator.comparing(RoomClaim::startDate));
+        LocalDate startDate = null;
+        LocalDate endDate = null;
+        for (RoomClaim claim : sorted) {
+            if (startDate != null && claim.startDate().isAfter(endDate.plusDays(1))) {
+                inventoryRepository.lockInventoryOfRoom(roomId, startDate, endDate);
+                startDate = null;
+            }
+            if (startDate == null) {
+                startDate = claim.startDate();
+                endDate = claim.endDate();
+            } else if (claim.endDate().isAfter(endDate)) {
+                endDate = claim.endDate();
+            }
+        }
+        inventoryRepository.lockInventoryOfRoom(roomId, startDate, endDate);
+    }
+
+    /** Helper: does the patch overlap a range of its room that a group after `ordinal` already writes? */
+    private static boolean overlapsLaterGroup(List<RoomClaim> roomClaims, InventoryPatchDto patch, int ordinal) {
+        if (roomClaims == null) {
+            return false;
+        }
+        for (RoomClaim claim : roomClaims) {
+            if (claim.ordinal() > ordinal
+                    && !claim.startDate().isAfter(patch.getEndDate())
+                    && !patch.getStartDate().isAfter(claim.endDate())) {
+                return true;
+            }
+        }
+        return false;
     }
 
     /**
@@ -145,7 +693,7 @@ public class InventoryServiceImpl implements InventoryService {
         log.info("Updating all inventory by room for room with id: {} between date range: {} - {}",
                 roomId, updateInventoryRequestDto.getStartDate(), updateInventoryRequestDto.getEndDate());
 
-        Room room = roomRepository.findById(roomId)
+        Room room = roomRepository.findWithHotelById(roomId)
                 .orElseThrow(() -> new ResourceNotFoundException("Room not found with id: " + roomId));
 
         // Check ownership
@@ -169,5 +717,7 @@ public class InventoryServiceImpl implements InventoryService {
                 updateInventoryRequestDto.getClosed(),
                 updateInventoryRequestDto.getSurgeFactor()
         );
+        priceCalendarCache.invalidateAfterCommit(room.getHotel().getId()); // closed days change availability
+        searchVersion.bumpAfterCommit();
     }
 }
@@ -1,24 +1,33 @@
 package com.rightmeprove.airbnb.airBnbApp.service;
 
+import com.rightmeprove.airbnb.airBnbApp.cache.PriceCalendarCache;
+import com.rightmeprove.airbnb.airBnbApp.cache.SearchVersion;
 import com.rightmeprove.airbnb.airBnbApp.entity.Hotel;
-import com.rightmeprove.airbnb.airBnbApp.entity.HotelMinPrice;
 import com.rightmeprove.airbnb.airBnbApp.entity.Inventory;
 import com.rightmeprove.airbnb.airBnbApp.repository.HotelMinPriceRepository;
 import com.rightmeprove.airbnb.airBnbApp.repository.HotelRepository;
 import com.rightmeprove.airbnb.airBnbApp.repository.InventoryRepository;
 import com.rightmeprove.airbnb.airBnbApp.strategy.PricingService;
+import jakarta.annotation.PreDestroy;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.util.*;
-import java.util.stream.Collectors;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static com.rightmeprove.airbnb.airBnbApp.util.TransactionUtils.runAfterCommit;
 
 /**
  * Service that handles dynamic pricing updates for all hotels.
@@ -27,6 +36,7 @@ import java.util.stream.Collectors;
  * 1. Update inventory prices for all rooms using PricingService.
  * 2. Update HotelMinPrice table for fast retrieval of minimum daily hotel prices.
  * 3. Runs automatically every hour using @Scheduled annotation.
+ * 4. Re-prices single hotels after room changes, in the background once the change commits.
  */
 @Service
 @RequiredArgsConstructor // generates constructor for all final dependencies (dependency injection)
@@ -46,6 +56,35 @@ public class PricingUpdateService {
     // Strategy service to calculate dynamic pricing for inventory
     private final PricingService pricingService;
 
+    // Search results are built from HotelMinPrice -> their ETags change after each run
+    private final SearchVersion searchVersion;
+
+    // Per-hotel price calendars are built from HotelMinPrice -> reloaded after each hotel update
+    private final PriceCalendarCache priceCalendarCache;
+
+    // Monthly partitions of hotel_min_price, created ahead of the rows written here
+    private final InventoryPartitionService inventoryPartitionService;
+
+    // Single hotels re-priced in the background are skipped once their deletion is queued
+    private final HotelDeletionService hotelDeletionService;
+
+    // Price-only batched updates (the loaded inventory is a snapshot and is never written back)
+    private final JdbcTemplate jdbcTemplate;
+
+    // Transactions of the background re-pricing (the class-level @Transactional only covers calls through the proxy)
+    private final TransactionTemplate transactionTemplate;
+
+    // One background re-pricing at a time, in submission order
+    private final ExecutorService repricingExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "hotel-repricing");
+        thread.setDaemon(true); // a lost re-pricing is made up by the next hourly run
+        return thread;
+    });
+
+    // Inventory exists from today up to today + horizonDays
+    @Value("${inventory.horizon.days}")
+    private int horizonDays;
+
     /**
      * Scheduled method that runs at the top of every hour.
      * Updates all hotels’ inventory and min price in batches to avoid memory issues.
@@ -55,9 +94,13 @@ public class PricingUpdateService {
         int page = 0;
         int batchSize = 100; // batch size for pagination
 
+        // Min prices are written up to the horizon: their monthly partitions must exist
+        inventoryPartitionService.ensurePartitionsUpTo(LocalDate.now().plusDays(horizonDays));
+
         while (true) {
-            // Fetch a page of hotels from the DB
-            Page<Hotel> hotelPage = hotelRepository.findAll(PageRequest.of(page, batchSize));
+            // Fetch a page of hotels from the DB (hotels being deleted are skipped, so their
+            // min prices are not written back while the deletion removes them)
+            Page<Hotel> hotelPage = hotelRepository.findAllNotBeingDeleted(PageRequest.of(page, batchSize));
 
             // Stop if no more hotels
             if (hotelPage.isEmpty()) {
@@ -70,6 +113,42 @@ public class PricingUpdateService {
             // Move to the next page
             page++;
         }
+
+        searchVersion.bumpAfterCommit();
+    }
+
+    /**
+     * Re-prices one hotel soon (e.g. after a room's base price or total count changed) instead of
+     * waiting for the hourly run. Queued once the caller's transaction commits and run on the
+     * repricing thread in its own transaction, so the caller neither waits for it nor holds its
+     * locks meanwhile.
+     *
+     * @param hotelId The hotel to update
+     */
+    public void repriceHotelAfterCommit(Long hotelId) {
+        runAfterCommit(() -> repricingExecutor.submit(() -> repriceHotel(hotelId)));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        repricingExecutor.shutdownNow();
+    }
+
+    private void repriceHotel(Long hotelId) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                // The hotel may have been deleted (or queued for deletion) in the meantime
+                Hotel hotel = hotelRepository.findById(hotelId).orElse(null);
+                if (hotel == null || hotelDeletionService.isBeingDeleted(hotelId)) {
+                    return;
+                }
+                updateHotelPrices(hotel);
+                searchVersion.bumpAfterCommit();
+            });
+        } catch (RuntimeException e) {
+            // The hourly run prices the hotel again anyway
+            log.error("Re-pricing of hotel {} failed", hotelId, e);
+        }
     }
 
     /**
@@ -81,7 +160,7 @@ public class PricingUpdateService {
         log.info("Updating hotel prices for hotel ID: {}", hotel.getId());
 
         LocalDate startDate = LocalDate.now();            // start from today
-        LocalDate endDate = LocalDate.now().plusYears(1); // update for next 1 year
+        LocalDate endDate = LocalDate.now().plusDays(horizonDays); // update up to the inventory horizon
 
         // Fetch all inventory entries for this hotel between startDate and endDate
         List<Inventory> inventoryList = inventoryRepository.findByHotelAndDateBetween(hotel, startDate, endDate);
@@ -90,63 +169,45 @@ public class PricingUpdateService {
         updateInventoryPrices(inventoryList);
 
         // Update HotelMinPrice table with minimum price per day
-        updateHotelMinPrice(hotel, inventoryList, startDate, endDate);
+        updateHotelMinPrice(hotel, startDate, endDate);
+
+        priceCalendarCache.invalidateAfterCommit(hotel.getId());
     }
 
     /**
      * Updates the HotelMinPrice table with the lowest price per day
-     * across all rooms in the hotel.
+     * across all rooms in the hotel: one INSERT ... ON CONFLICT aggregate over the inventory.
      *
-     * @param hotel         Hotel to update
-     * @param inventoryList List of inventory records for the hotel
-     * @param startDate     Start date for pricing update
-     * @param endDate       End date for pricing update
+     * @param hotel     Hotel to update
+     * @param startDate Start date for pricing update
+     * @param endDate   End date for pricing update
      */
-    private void updateHotelMinPrice(Hotel hotel, List<Inventory> inventoryList,
-                                     LocalDate startDate, LocalDate endDate) {
-
-        // Compute minimum price for each date across all rooms
-        Map<LocalDate, BigDecimal> dailyMinPrices = inventoryList.stream()
-                .collect(Collectors.groupingBy(
-                        Inventory::getDate,                  // group by date
-                        Collectors.mapping(
-                                Inventory::getPrice,        // extract price
-                                Collectors.minBy(Comparator.naturalOrder()) // pick min
-                        )
-                ))
-                .entrySet().stream()
-                // Flatten Optional<BigDecimal> to BigDecimal
-                .collect(Collectors.toMap(Map.Entry::getKey, e -> e.getValue().orElse(BigDecimal.ZERO)));
-
-        // Prepare HotelMinPrice entities for bulk save
-        List<HotelMinPrice> hotelPrices = new ArrayList<>();
-        dailyMinPrices.forEach((date, price) -> {
-            // Fetch existing record, or create new one if not found
-            HotelMinPrice hotelPrice = hotelMinPriceRepository
-                    .findByHotelAndDate(hotel, date)
-                    .orElse(new HotelMinPrice(hotel, date));
-
-            hotelPrice.setPrice(price); // update min price
-            hotelPrices.add(hotelPrice);
-        });
-
-        // Save all min price records in batch
-        hotelMinPriceRepository.saveAll(hotelPrices);
+    private void updateHotelMinPrice(Hotel hotel, LocalDate startDate, LocalDate endDate) {
+        int rows = hotelMinPriceRepository.upsertFromInventory(hotel.getId(), startDate, endDate);
+        log.debug("Refreshed {} min prices of hotel {}", rows, hotel.getId());
     }
 
     /**
      * Updates inventory prices using the dynamic pricing strategies.
+     * The entities are an unlocked snapshot: they are only read, and the new prices are written
+     * by a batched price-only UPDATE keyed on (id, date). Saving the entities would write every
+     * column back and overwrite booked/reserved counts or closed flags committed meanwhile.
      *
      * @param inventoryList List of inventory entries to update
      */
     private void updateInventoryPrices(List<Inventory> inventoryList) {
-        inventoryList.forEach(inventory -> {
+        List<Object[]> changedPrices = new ArrayList<>();
+        for (Inventory inventory : inventoryList) {
             // Calculate dynamic price using PricingService
             BigDecimal dynamicPrice = pricingService.calculateDynamicPricing(inventory);
-            inventory.setPrice(dynamicPrice);
-        });
+            if (inventory.getPrice() == null || dynamicPrice.compareTo(inventory.getPrice()) != 0) {
+                changedPrices.add(new Object[]{dynamicPrice, inventory.getId(), inventory.getDate()});
+            }
+        }
 
-        // Save all updated inventory records in bulk
-        inventoryRepository.saveAll(inventoryList);
+        // Only the changed prices, in JDBC batches
+        jdbcTemplate.batchUpdate(
+                "UPDATE inventory SET price = ?, updated_at = CURRENT_DATE WHERE id = ? AND date = ?",
+                changedPrices);
     }
 }
@@ -1,22 +1,24 @@
 package com.rightmeprove.airbnb.airBnbApp.service;
 
+import com.rightmeprove.airbnb.airBnbApp.cache.HotelCacheEvictor;
 import com.rightmeprove.airbnb.airBnbApp.dto.RoomDto;
 import com.rightmeprove.airbnb.airBnbApp.entity.Hotel;
 import com.rightmeprove.airbnb.airBnbApp.entity.Room;
 import com.rightmeprove.airbnb.airBnbApp.entity.User;
 import com.rightmeprove.airbnb.airBnbApp.exception.ResourceNotFoundException;
 import com.rightmeprove.airbnb.airBnbApp.exception.UnAuthorisedException;
+import com.rightmeprove.airbnb.airBnbApp.mapper.RoomMapper;
 import com.rightmeprove.airbnb.airBnbApp.repository.HotelRepository;
 import com.rightmeprove.airbnb.airBnbApp.repository.RoomRepository;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.modelmapper.ModelMapper;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
+import java.math.BigDecimal;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Objects;
 
 import static com.rightmeprove.airbnb.airBnbApp.util.AppUtils.getCurrentUser;
 
@@ -40,12 +42,21 @@ public class RoomServiceImpl implements RoomService {
     // Repository to manage Hotel entities
     private final HotelRepository hotelRepository;
 
-    // ModelMapper for mapping between entity <-> DTO
-    private final ModelMapper modelMapper;
+    // Mapper for Room entity <-> RoomDto
+    private final RoomMapper roomMapper;
 
     // Inventory service to initialize or delete inventory for rooms
     private final InventoryService inventoryService;
 
+    // Second-level cache invalidation for the hotel -> rooms collection
+    private final HotelCacheEvictor hotelCacheEvictor;
+
+    // Re-prices the hotel after base price / total count changes
+    private final PricingUpdateService pricingUpdateService;
+
+    // Rooms of a hotel that is being deleted must not change
+    private final HotelDeletionService hotelDeletionService;
+
     /**
      * Creates a new room under a specific hotel.
      *
@@ -67,21 +78,23 @@ public class RoomServiceImpl implements RoomService {
         if(!user.equals(hotel.getOwner())) {
             throw new UnAuthorisedException("This user does not own this hotel with ID: " + hotelId);
         }
+        hotelDeletionService.checkNotBeingDeleted(hotelId);
 
         // Map DTO → entity and set hotel relationship
-        Room room = modelMapper.map(roomDto, Room.class);
+        Room room = roomMapper.toEntity(roomDto);
         room.setHotel(hotel);
 
-        // Persist room
+        // Persist room (the cached hotel.rooms collection no longer matches)
         room = roomRepository.save(room);
+        hotelCacheEvictor.evictRoom(hotelId, room.getId());
 
-        // If hotel is active, initialize inventory for the new room for 1 year
+        // If hotel is active, initialize inventory for the new room up to the horizon
         if (hotel.getActive()) {
-            inventoryService.initializeRoomForAYear(room);
+            inventoryService.initializeRoomInventory(room);
         }
 
         // Map back to DTO for response
-        return modelMapper.map(room, RoomDto.class);
+        return roomMapper.toDto(room);
     }
 
     /**
@@ -104,11 +117,8 @@ public class RoomServiceImpl implements RoomService {
             throw new UnAuthorisedException("This user does not own this hotel with ID: " + hotelId);
         }
 
-        // Map each Room entity → RoomDto
-        return hotel.getRooms()
-                .stream()
-                .map(room -> modelMapper.map(room, RoomDto.class))
-                .collect(Collectors.toList());
+        // Projection query: RoomDto columns only, no lazy hotel.getRooms() load
+        return roomRepository.findRoomDtosByHotelId(hotelId);
     }
 
     /**
@@ -125,7 +135,7 @@ public class RoomServiceImpl implements RoomService {
         Room room = roomRepository.findById(roomId)
                 .orElseThrow(() -> new ResourceNotFoundException("Room not found with ID: " + roomId));
 
-        return modelMapper.map(room, RoomDto.class);
+        return roomMapper.toDto(room);
     }
 
     /**
@@ -138,8 +148,8 @@ public class RoomServiceImpl implements RoomService {
     public void deleteRoomById(Long roomId) {
         log.info("Deleting the room with ID: {}", roomId);
 
-        // Fetch room and validate
-        Room room = roomRepository.findById(roomId)
+        // Fetch room (with hotel and owner for the ownership check) and validate
+        Room room = roomRepository.findWithHotelById(roomId)
                 .orElseThrow(() -> new ResourceNotFoundException("Room not found with ID: " + roomId));
 
         // Check ownership
@@ -153,6 +163,7 @@ public class RoomServiceImpl implements RoomService {
 
         // Delete the room
         roomRepository.deleteById(roomId);
+        hotelCacheEvictor.evictRoom(room.getHotel().getId(), roomId);
     }
 
     /**
@@ -175,18 +186,39 @@ public class RoomServiceImpl implements RoomService {
         if(!user.equals(hotel.getOwner())) {
             throw new UnAuthorisedException("This user does not own this hotel with ID: " + hotelId);
         }
+        hotelDeletionService.checkNotBeingDeleted(hotelId);
 
         // Validate room existence
         Room room = roomRepository.findById(roomId)
                 .orElseThrow(() -> new ResourceNotFoundException("Room not found with ID: " + roomId));
+        // Ownership was checked on the hotel of the path: the room must be one of its rooms
+        if (!room.getHotel().getId().equals(hotelId)) {
+            throw new ResourceNotFoundException("Room not found with ID: " + roomId + " in hotel with ID: " + hotelId);
+        }
+
+        Integer previousTotalCount = room.getTotalCount();
+        BigDecimal previousBasePrice = room.getBasePrice();
 
         // Map updated DTO → entity
-        modelMapper.map(roomDto, room);
-        room.setId(roomId);
+        roomMapper.updateEntity(roomDto, room);
 
         // Save changes
         room = roomRepository.save(room);
+        hotelCacheEvictor.evictRoom(hotelId, roomId);
+
+        // Existing inventory follows the room: future totals in one UPDATE, then this hotel's prices
+        // (base price and occupancy feed the pricing strategies) without waiting for the hourly job
+        boolean totalCountChanged = room.getTotalCount() != null && !Objects.equals(previousTotalCount, room.getTotalCount());
+        boolean basePriceChanged = previousBasePrice == null || room.getBasePrice() == null
+                ? previousBasePrice != room.getBasePrice()
+                : previousBasePrice.compareTo(room.getBasePrice()) != 0;
+        if (totalCountChanged) {
+            inventoryService.updateRoomTotalCount(room);
+        }
+        if (totalCountChanged || basePriceChanged) {
+            pricingUpdateService.repriceHotelAfterCommit(room.getHotel().getId());
+        }
 
-        return modelMapper.map(room, RoomDto.class);
+        return roomMapper.toDto(room);
     }
 }
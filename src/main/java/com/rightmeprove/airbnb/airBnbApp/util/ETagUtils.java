@@ -0,0 +1,33 @@
+package com.rightmeprove.airbnb.airBnbApp.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * ⚡ ETagUtils
+ *
+ * Builds HTTP entity tags for conditional GET (If-None-Match → 304 Not Modified).
+ * Tags are truncated SHA-256 hashes, so different inputs practically never collide
+ * (a collision would make a client keep a stale response).
+ */
+public class ETagUtils {
+
+    // 128 bits of the hash is plenty for an entity tag
+    private static final int TAG_BYTES = 16;
+
+    /** Weak tag: the representation is semantically equivalent while the tag matches. */
+    public static String weak(String... parts) {
+        return "W/\"" + hash(String.join("|", parts).getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    private static String hash(byte[] content) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content);
+            return HexFormat.of().formatHex(digest, 0, TAG_BYTES);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.rightmeprove.airbnb.airBnbApp.util;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * ⚡ TransactionUtils
+ *
+ * Helpers for running side effects (cache invalidation, version bumps) in step with
+ * the surrounding database transaction.
+ */
+public class TransactionUtils {
+
+    /**
+     * Run the action after the current transaction commits, or right away when no
+     * transaction is active. Nothing runs if the transaction rolls back.
+     *
+     * Why after commit?
+     * - Invalidating a cache before commit lets a concurrent reader re-populate it
+     *   with the old, still-committed state.
+     */
+    public static void runAfterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
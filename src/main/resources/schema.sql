@@ -0,0 +1,21 @@
+-- Indexes and tables Hibernate cannot declare through JPA annotations.
+-- Runs after Hibernate's schema update (spring.jpa.defer-datasource-initialization=true),
+-- on every start, so every statement must be idempotent.
+
+-- Contains-all amenity filters of hotel search (TEXT[] @> ARRAY[...])
+CREATE INDEX IF NOT EXISTS idx_hotel_amenities_gin ON hotel USING GIN (amenities);
+CREATE INDEX IF NOT EXISTS idx_room_amenities_gin ON room USING GIN (amenities);
+
+-- Case-insensitive city match of hotel search (LOWER(city) = :city)
+CREATE INDEX IF NOT EXISTS idx_hotel_lower_city ON hotel (LOWER(city));
+
+-- Superseded by the unique key uk_hotel_min_price_hotel_date (HotelMinPrice)
+DROP INDEX IF EXISTS idx_hotel_min_price_hotel_date;
+
+-- Version of the data hotel search depends on (SearchVersion), shared by all instances
+CREATE SEQUENCE IF NOT EXISTS search_version_seq;
+
+-- Bookings of deleted hotels (HotelDeletionService): same columns, no keys, so the history outlives the hotel
+CREATE SCHEMA IF NOT EXISTS archive;
+CREATE TABLE IF NOT EXISTS archive.booking (LIKE booking);
+CREATE TABLE IF NOT EXISTS archive.booking_guest (LIKE booking_guest);
@@ -0,0 +1,85 @@
+package com.rightmeprove.airbnb.airBnbApp.security;
+
+import com.rightmeprove.airbnb.airBnbApp.dto.SignUpRequestDto;
+import com.rightmeprove.airbnb.airBnbApp.exception.ResourceConflictException;
+import com.rightmeprove.airbnb.airBnbApp.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Fires many parallel signups for the same email and checks that the unique index
+ * lets exactly one through while every other caller gets a clean 409 conflict.
+ */
+@SpringBootTest
+class AuthServiceSignUpConcurrencyTests {
+
+	private static final int PARALLEL_SIGNUPS = 1_000;
+
+	@Autowired
+	private AuthService authService;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	private final String email = "concurrent-" + UUID.randomUUID() + "@test.local";
+
+	@AfterEach
+	void cleanUp() {
+		userRepository.findByEmail(email).ifPresent(userRepository::delete);
+	}
+
+	@Test
+	void onlyOneOfManyConcurrentSignUpsWithSameEmailSucceeds() throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(64);
+		CountDownLatch startGate = new CountDownLatch(1);
+		List<Future<Boolean>> results = new ArrayList<>();
+
+		try {
+			for (int i = 0; i < PARALLEL_SIGNUPS; i++) {
+				results.add(executor.submit(() -> {
+					startGate.await();
+					SignUpRequestDto request = new SignUpRequestDto();
+					request.setEmail(email);
+					request.setPassword("password");
+					request.setName("Concurrent User");
+					authService.signUp(request);
+					return true;
+				}));
+			}
+			startGate.countDown();
+
+			int created = 0;
+			int conflicts = 0;
+			for (Future<Boolean> result : results) {
+				try {
+					result.get();
+					created++;
+				} catch (ExecutionException ex) {
+					assertTrue(ex.getCause() instanceof ResourceConflictException,
+							"Unexpected signup failure: " + ex.getCause());
+					conflicts++;
+				}
+			}
+
+			assertEquals(1, created);
+			assertEquals(PARALLEL_SIGNUPS - 1, conflicts);
+			assertTrue(userRepository.findByEmail(email).isPresent());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+}
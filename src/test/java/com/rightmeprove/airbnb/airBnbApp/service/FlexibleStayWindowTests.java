@@ -0,0 +1,84 @@
+package com.rightmeprove.airbnb.airBnbApp.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Window helpers of the flexible-date search: cheapest run of available nights in one room's
+ * series, cheapest room of a hotel and the bounded heap of the best stays across hotels.
+ */
+class FlexibleStayWindowTests {
+
+	@Test
+	void cheapestWindowSkipsUnavailableNights() {
+		// Night 2 is closed or sold out: the cheap nights 1-2 (200) cannot form a 2-night stay
+		long[] prices = {500, 100, 100, 400, 450, 300};
+		boolean[] available = {true, true, false, true, true, true};
+
+		InventoryServiceImpl.BestStay stay = cheapestStay(prices, available, 2);
+
+		assertEquals(new InventoryServiceImpl.BestStay(1L, 10L, 0, 600), stay);
+	}
+
+	@Test
+	void cheapestWindowPrefersTheEarliestOnTies() {
+		long[] prices = {200, 100, 200, 100, 200};
+		boolean[] available = {true, true, true, true, true};
+
+		// Every 2-night window costs 300
+		assertEquals(0, cheapestStay(prices, available, 2).startDay());
+		assertEquals(400, cheapestStay(prices, available, 3).total());
+		assertEquals(1, cheapestStay(prices, available, 3).startDay());
+	}
+
+	@Test
+	void noWindowWhenNoRunOfAvailableNightsIsLongEnough() {
+		long[] prices = {100, 100, 100, 100};
+		boolean[] available = {true, true, false, true};
+
+		assertNull(cheapestStay(prices, available, 3));
+		assertNull(cheapestStay(prices, available, 5));
+		assertNull(InventoryServiceImpl.cheapestStay(1L, null, prices, available,
+				new long[prices.length + 1], new int[prices.length + 1], 1));
+	}
+
+	@Test
+	void hotelKeepsItsCheapestRoomAndTheFirstOnTies() {
+		InventoryServiceImpl.BestStay first = new InventoryServiceImpl.BestStay(1L, 10L, 0, 300);
+		InventoryServiceImpl.BestStay cheaper = new InventoryServiceImpl.BestStay(1L, 11L, 2, 200);
+		InventoryServiceImpl.BestStay tie = new InventoryServiceImpl.BestStay(1L, 12L, 1, 200);
+
+		assertNull(InventoryServiceImpl.cheaper(null, null));
+		assertEquals(first, InventoryServiceImpl.cheaper(null, first));
+		assertEquals(first, InventoryServiceImpl.cheaper(first, null));
+		assertEquals(cheaper, InventoryServiceImpl.cheaper(first, cheaper));
+		assertEquals(cheaper, InventoryServiceImpl.cheaper(cheaper, tie));
+	}
+
+	@Test
+	void heapKeepsTheCheapestStaysUpToTheLimit() {
+		PriorityQueue<InventoryServiceImpl.BestStay> best =
+				new PriorityQueue<>(3, InventoryServiceImpl.CHEAPEST_FIRST.reversed());
+		long[] totals = {400, 100, 300, 200, 500};
+		for (int hotel = 0; hotel < totals.length; hotel++) {
+			InventoryServiceImpl.keepIfBetter(best, 2,
+					new InventoryServiceImpl.BestStay((long) hotel, 1L, 0, totals[hotel]));
+		}
+		InventoryServiceImpl.keepIfBetter(best, 2, null);
+
+		List<InventoryServiceImpl.BestStay> stays = new ArrayList<>(best);
+		stays.sort(InventoryServiceImpl.CHEAPEST_FIRST);
+		assertEquals(List.of(1L, 3L), stays.stream().map(InventoryServiceImpl.BestStay::hotelId).toList());
+	}
+
+	private static InventoryServiceImpl.BestStay cheapestStay(long[] prices, boolean[] available, int nights) {
+		return InventoryServiceImpl.cheapestStay(1L, 10L, prices, available,
+				new long[prices.length + 1], new int[prices.length + 1], nights);
+	}
+}
@@ -0,0 +1,109 @@
+package com.rightmeprove.airbnb.airBnbApp.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * DDL of the monthly partitions, run against a throwaway table shaped like inventory
+ * (identity id, date, a unique key and a plain index): conversion, archiving and
+ * partitions created ahead of far inserts.
+ */
+@SpringBootTest
+class InventoryPartitionServiceTests {
+
+	private static final String TABLE = "partition_test";
+
+	@Autowired
+	private InventoryPartitionService inventoryPartitionService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Value("${inventory.horizon.days:365}")
+	private int horizonDays;
+
+	private final List<String> createdPartitions = new ArrayList<>();
+
+	@AfterEach
+	void cleanUp() {
+		jdbcTemplate.execute("DROP TABLE IF EXISTS " + TABLE + " CASCADE");
+		jdbcTemplate.queryForList("SELECT format('DROP TABLE %I.%I', schemaname, tablename) FROM pg_tables"
+				+ " WHERE schemaname = 'archive' AND tablename LIKE '" + TABLE + "_p%'", String.class)
+				.forEach(jdbcTemplate::execute);
+		createdPartitions.forEach(partition -> jdbcTemplate.execute("DROP TABLE IF EXISTS " + partition));
+	}
+
+	@Test
+	void convertsPlainTableIntoMonthlyPartitionsAndArchivesExpiredMonths() {
+		LocalDate expiredMonth = inventoryPartitionService.firstRetainedDay().minusMonths(1);
+		LocalDate thisMonth = LocalDate.now().withDayOfMonth(1);
+		jdbcTemplate.execute("CREATE TABLE " + TABLE + " (id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,"
+				+ " room_id BIGINT NOT NULL, date DATE NOT NULL, CONSTRAINT uk_" + TABLE + " UNIQUE (room_id, date))");
+		jdbcTemplate.execute("CREATE INDEX idx_" + TABLE + "_room_id ON " + TABLE + " (room_id)");
+		for (LocalDate date : List.of(expiredMonth.plusDays(3), thisMonth, thisMonth.plusDays(1), thisMonth.plusMonths(1))) {
+			jdbcTemplate.update("INSERT INTO " + TABLE + " (room_id, date) VALUES (1, ?)", date);
+		}
+
+		transactionTemplate.executeWithoutResult(status -> inventoryPartitionService.convertToPartitioned(TABLE));
+
+		// One partition per month from the oldest to the newest row, empty months included
+		long months = ChronoUnit.MONTHS.between(expiredMonth, thisMonth.plusMonths(1)) + 1;
+		assertEquals(months, partitionsOf(TABLE).size());
+		assertEquals(4, count("SELECT COUNT(*) FROM " + TABLE));
+		assertEquals("PRIMARY KEY (id, date)", jdbcTemplate.queryForObject(
+				"SELECT pg_get_constraintdef(oid) FROM pg_constraint WHERE conrelid = CAST(? AS regclass) AND contype = 'p'",
+				String.class, TABLE));
+		assertEquals(1, count("SELECT COUNT(*) FROM pg_constraint WHERE conname = 'uk_" + TABLE + "'"));
+		assertEquals(1, count("SELECT COUNT(*) FROM pg_indexes WHERE indexname = 'idx_" + TABLE + "_room_id'"));
+		// The identity continues after the copied ids
+		assertEquals(5L, jdbcTemplate.queryForObject(
+				"INSERT INTO " + TABLE + " (room_id, date) VALUES (2, ?) RETURNING id", Long.class, thisMonth));
+
+		assertEquals(1, inventoryPartitionService.archivePartitions(TABLE, inventoryPartitionService.firstRetainedDay()));
+		assertEquals(months - 1, partitionsOf(TABLE).size());
+		assertEquals(1, count("SELECT COUNT(*) FROM archive." + TABLE + "_p"
+				+ expiredMonth.toString().substring(0, 7).replace('-', '_')));
+	}
+
+	@Test
+	void createsMissingMonthsBeforeFarInserts() {
+		LocalDate farDate = LocalDate.now().plusDays(horizonDays).plusMonths(6);
+		String partition = "inventory_p" + farDate.toString().substring(0, 7).replace('-', '_');
+		List<String> before = new ArrayList<>(partitionsOf("inventory"));
+		before.addAll(partitionsOf("hotel_min_price"));
+
+		inventoryPartitionService.ensurePartitionsUpTo(farDate);
+
+		List<String> after = new ArrayList<>(partitionsOf("inventory"));
+		after.addAll(partitionsOf("hotel_min_price"));
+		after.stream().filter(name -> !before.contains(name)).forEach(createdPartitions::add);
+		assertTrue(after.contains(partition), partition + " was not created");
+	}
+
+	private List<String> partitionsOf(String table) {
+		return jdbcTemplate.queryForList("""
+				SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid
+				WHERE i.inhparent = CAST(? AS regclass)
+				""", String.class, table);
+	}
+
+	private long count(String sql) {
+		return jdbcTemplate.queryForObject(sql, Long.class);
+	}
+}
@@ -0,0 +1,201 @@
+package com.rightmeprove.airbnb.airBnbApp.service;
+
+import com.rightmeprove.airbnb.airBnbApp.entity.Booking;
+import com.rightmeprove.airbnb.airBnbApp.entity.Guest;
+import com.rightmeprove.airbnb.airBnbApp.entity.Hotel;
+import com.rightmeprove.airbnb.airBnbApp.entity.Room;
+import com.rightmeprove.airbnb.airBnbApp.entity.User;
+import com.rightmeprove.airbnb.airBnbApp.entity.enums.BookingStatus;
+import com.rightmeprove.airbnb.airBnbApp.entity.enums.Role;
+import com.rightmeprove.airbnb.airBnbApp.repository.BookingRepository;
+import com.rightmeprove.airbnb.airBnbApp.repository.GuestRespository;
+import com.rightmeprove.airbnb.airBnbApp.repository.HotelRepository;
+import com.rightmeprove.airbnb.airBnbApp.repository.RoomRepository;
+import com.rightmeprove.airbnb.airBnbApp.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Statement budgets for the read endpoints that used to fan out into per-row lazy loads.
+ * Each listed service call must stay within its budget no matter how many rows it returns,
+ * so an accidental N+1 fails the build instead of showing up in production.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class QueryBudgetTests {
+
+	private static final int ROOMS = 5;
+	private static final int BOOKINGS = 20;
+	private static final int GUESTS_PER_BOOKING = 3;
+
+	@Autowired
+	private BookingService bookingService;
+
+	@Autowired
+	private HotelService hotelService;
+
+	@Autowired
+	private RoomService roomService;
+
+	@Autowired
+	private InventoryService inventoryService;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private HotelRepository hotelRepository;
+
+	@Autowired
+	private RoomRepository roomRepository;
+
+	@Autowired
+	private BookingRepository bookingRepository;
+
+	@Autowired
+	private GuestRespository guestRespository;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private Statistics statistics;
+	private User owner;
+	private Hotel hotel;
+	private final List<Room> rooms = new ArrayList<>();
+	private final List<Guest> guests = new ArrayList<>();
+	private final List<Booking> bookings = new ArrayList<>();
+
+	@BeforeEach
+	void setUp() {
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+		owner = new User();
+		owner.setEmail("budget-" + UUID.randomUUID() + "@test.local");
+		owner.setPassword("password");
+		owner.setName("Budget Owner");
+		owner.setRoles(Set.of(Role.GUEST, Role.HOTEL_MANAGER));
+		owner = userRepository.save(owner);
+
+		hotel = new Hotel();
+		hotel.setName("Budget Hotel");
+		hotel.setCity("Budget City");
+		hotel.setActive(true);
+		hotel.setOwner(owner);
+		hotel = hotelRepository.save(hotel);
+
+		for (int i = 0; i < ROOMS; i++) {
+			Room room = new Room();
+			room.setHotel(hotel);
+			room.setType("Type " + i);
+			room.setBasePrice(BigDecimal.valueOf(1000));
+			room.setTotalCount(10);
+			room.setCapacity(2);
+			rooms.add(roomRepository.save(room));
+		}
+		inventoryService.initializeRoomInventory(rooms.get(0));
+
+		for (int i = 0; i < BOOKINGS; i++) {
+			Set<Guest> bookingGuests = new HashSet<>();
+			for (int g = 0; g < GUESTS_PER_BOOKING; g++) {
+				Guest guest = new Guest();
+				guest.setUser(owner);
+				guest.setName("Guest " + i + "-" + g);
+				guest.setAge(30);
+				guest = guestRespository.save(guest);
+				guests.add(guest);
+				bookingGuests.add(guest);
+			}
+			bookings.add(bookingRepository.save(Booking.builder()
+					.hotel(hotel)
+					.room(rooms.get(i % ROOMS))
+					.user(owner)
+					.roomsCount(1)
+					.checkInDate(LocalDate.now().plusDays(1))
+					.checkOutDate(LocalDate.now().plusDays(2))
+					.bookingStatus(BookingStatus.RESERVED)
+					.amount(BigDecimal.valueOf(1000))
+					.guests(bookingGuests)
+					.build()));
+		}
+
+		SecurityContextHolder.getContext().setAuthentication(
+				new UsernamePasswordAuthenticationToken(owner, null, owner.getAuthorities()));
+	}
+
+	@AfterEach
+	void cleanUp() {
+		SecurityContextHolder.clearContext();
+		bookingRepository.deleteAll(bookings);
+		guestRespository.deleteAll(guests);
+		inventoryService.deleteAllInventories(rooms.get(0));
+		roomRepository.deleteAll(rooms);
+		hotelRepository.delete(hotel);
+		userRepository.delete(owner);
+	}
+
+	@Test
+	void getMyBookingsStaysWithinBudget() {
+		int guestCount = assertWithinBudget("getMyBookings", 2, () -> bookingService.getMyBookings(List.of(), null, BOOKINGS))
+				.getContent().stream().mapToInt(booking -> booking.getGuests().size()).sum();
+		assertEquals(BOOKINGS * GUESTS_PER_BOOKING, guestCount);
+	}
+
+	@Test
+	void getAllBookingsByHotelIdStaysWithinBudget() {
+		assertEquals(BOOKINGS, assertWithinBudget("getAllBookingsByHotelId", 3,
+				() -> bookingService.getAllBookingsByHotelId(hotel.getId(), List.of(), null, BOOKINGS)).getContent().size());
+	}
+
+	@Test
+	void getHotelInfoByIdStaysWithinBudget() {
+		assertEquals(ROOMS, assertWithinBudget("getHotelInfoById", 1,
+				() -> hotelService.getHotelInfoById(hotel.getId())).getRooms().size());
+	}
+
+	@Test
+	void getAllRoomsInHotelStaysWithinBudget() {
+		assertEquals(ROOMS, assertWithinBudget("getAllRoomsInHotel", 2,
+				() -> roomService.getAllRoomsInHotel(hotel.getId())).size());
+	}
+
+	@Test
+	void getAllInventoryByRoomStaysWithinBudget() {
+		assertTrue(assertWithinBudget("getAllInventoryByRoom", 2,
+				() -> inventoryService.getAllInventoryByRoom(rooms.get(0).getId())).size() >= 365);
+	}
+
+	@Test
+	void getInventoryRangeByRoomStaysWithinBudget() {
+		assertEquals(30, assertWithinBudget("getInventoryRangeByRoom", 2,
+				() -> inventoryService.getInventoryRangeByRoom(rooms.get(0).getId(), null, null)).getPrice().length);
+	}
+
+	/** Runs the call with fresh statistics and fails if it prepared more statements than the budget. */
+	private <T> T assertWithinBudget(String endpoint, long budget, Supplier<T> call) {
+		statistics.clear();
+		T result = call.get();
+		long statements = statistics.getPrepareStatementCount();
+		assertTrue(statements <= budget,
+				endpoint + " prepared " + statements + " statements, budget is " + budget);
+		return result;
+	}
+}